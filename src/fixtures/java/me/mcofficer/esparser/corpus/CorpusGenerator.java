@@ -0,0 +1,254 @@
+/*
+CorpusGenerator.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser.corpus;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/** Generates synthetic data files in the Endless Sky data syntax, for benchmarks and scale
+ * testing without the game's files. Definitions look like the game's: a type and a name, such
+ * as {@code ship "Name"}, followed by a tree of keys with numbers and quoted phrases.
+ *
+ * Output is deterministic: the same settings and seed always give the same lines. Each file
+ * has its own random sequence, so any one file can be generated without the others.
+ *
+ * At the default settings, scale 1 is roughly the size of the game's own data: 100 files of
+ * 100 definitions, about 200,000 lines or 4 MB. Scale 10 and 100 multiply the number of files. */
+public class CorpusGenerator {
+    private static final String[] TYPES = {"ship", "outfit", "system", "planet", "fleet",
+            "government", "mission", "effect", "outfitter", "person"};
+    private static final String[] KEYS = {"attributes", "cost", "mass", "drag", "category",
+            "description", "sprite", "thumbnail", "outfits", "engine", "gun", "turret", "explode",
+            "pos", "object", "distance", "period", "fleet", "personality", "variant", "names",
+            "\"cargo space\"", "\"outfit space\"", "\"heat dissipation\"", "\"shield generation\"",
+            "\"weapon capacity\"", "\"required crew\"", "to offer", "on complete", "dialog"};
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+
+    private long seed = 0;
+    private int files = 100;
+    private int definitions = 100;
+    private int maxDepth = 3;
+    private int children = 4;
+    private int tokenLength = 6;
+    private double backtickRatio = 0.1;
+    private double commentRatio = 0.05;
+    private String indent = "\t";
+
+    public CorpusGenerator() {}
+
+    /** @param seed the random seed
+     * @returns this object */
+    public CorpusGenerator setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /** @param files the number of files written by write()
+     * @returns this object */
+    public CorpusGenerator setFiles(int files) {
+        this.files = files;
+        return this;
+    }
+
+    /** Sets the number of files to a multiple of the size of the game's data.
+     *
+     * @param scale 1 for about the size of the game's data, 10 for ten times that, and so on
+     * @returns this object */
+    public CorpusGenerator setScale(int scale) {
+        return setFiles(100 * scale);
+    }
+
+    /** @param definitions the number of top-level nodes in each file
+     * @returns this object */
+    public CorpusGenerator setDefinitions(int definitions) {
+        this.definitions = definitions;
+        return this;
+    }
+
+    /** @param maxDepth the greatest depth of a child below a definition, at least 1
+     * @returns this object */
+    public CorpusGenerator setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    /** @param children the average number of children of a node that has children
+     * @returns this object */
+    public CorpusGenerator setChildren(int children) {
+        this.children = children;
+        return this;
+    }
+
+    /** @param tokenLength the average length of a word in a name or phrase
+     * @returns this object */
+    public CorpusGenerator setTokenLength(int tokenLength) {
+        this.tokenLength = tokenLength;
+        return this;
+    }
+
+    /** @param backtickRatio the share of quoted tokens that use '`' instead of '"', from 0 to 1
+     * @returns this object */
+    public CorpusGenerator setBacktickRatio(double backtickRatio) {
+        this.backtickRatio = backtickRatio;
+        return this;
+    }
+
+    /** @param commentRatio the chance, from 0 to 1, that a node has a comment line before it.
+     * Half as many nodes have a comment after their tokens.
+     * @returns this object */
+    public CorpusGenerator setCommentRatio(double commentRatio) {
+        this.commentRatio = commentRatio;
+        return this;
+    }
+
+    /** @param indent the text for one level of indentation, such as a tab or four spaces
+     * @returns this object */
+    public CorpusGenerator setIndent(String indent) {
+        this.indent = indent;
+        return this;
+    }
+
+    /** Generates the lines of one file.
+     *
+     * @param index the index of the file, from 0
+     * @returns the lines */
+    public List<String> generateFile(int index) {
+        Random random = new Random(seed * 1_000_003L + index);
+        ArrayList<String> lines = new ArrayList<>();
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < definitions; i++) {
+            comment(lines, line, 0, random);
+            line.append(TYPES[random.nextInt(TYPES.length)]).append(' ');
+            quoted(line, phrase(random, 1 + random.nextInt(3)), random);
+            end(lines, line, random);
+            node(lines, line, 1, random);
+            lines.add("");
+        }
+        return lines;
+    }
+
+    /** Writes all files into a directory, as file000.txt, file001.txt and so on.
+     *
+     * @param directory the directory, which is created if needed
+     * @returns the files, in order */
+    public List<Path> write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        ArrayList<Path> written = new ArrayList<>(files);
+        for (int i = 0; i < files; i++)
+            written.add(Files.write(directory.resolve(String.format("file%03d.txt", i)), generateFile(i), StandardCharsets.UTF_8));
+        return written;
+    }
+
+    /** Adds the children of a node at the given depth, and their children in turn. */
+    private void node(List<String> lines, StringBuilder line, int depth, Random random) {
+        int count = random.nextInt(2 * children + 1);
+        for (int i = 0; i < count; i++) {
+            comment(lines, line, depth, random);
+            indent(line, depth);
+            line.append(KEYS[random.nextInt(KEYS.length)]);
+            for (int values = random.nextInt(3); values > 0; values--) {
+                line.append(' ');
+                value(line, random);
+            }
+            end(lines, line, random);
+            if (depth < maxDepth && random.nextInt(3) == 0)
+                node(lines, line, depth + 1, random);
+        }
+    }
+
+    private void value(StringBuilder line, Random random) {
+        int kind = random.nextInt(4);
+        if (kind == 0)
+            line.append(random.nextInt(10000) - 100);
+        else if (kind == 1)
+            line.append(random.nextInt(1000)).append('.').append(random.nextInt(100));
+        else if (kind == 2)
+            line.append(word(random));
+        else
+            quoted(line, phrase(random, 2 + random.nextInt(4)), random);
+    }
+
+    private void comment(List<String> lines, StringBuilder line, int depth, Random random) {
+        if (random.nextDouble() >= commentRatio)
+            return;
+        indent(line, depth);
+        line.append("# ").append(phrase(random, 1 + random.nextInt(6)));
+        lines.add(line.toString());
+        line.setLength(0);
+    }
+
+    /** Ends a line, sometimes with a comment after the tokens. */
+    private void end(List<String> lines, StringBuilder line, Random random) {
+        if (random.nextDouble() < commentRatio / 2)
+            line.append(" # ").append(phrase(random, 1 + random.nextInt(3)));
+        lines.add(line.toString());
+        line.setLength(0);
+    }
+
+    private void indent(StringBuilder line, int depth) {
+        for (int i = 0; i < depth; i++)
+            line.append(indent);
+    }
+
+    private void quoted(StringBuilder line, String text, Random random) {
+        char quote = random.nextDouble() < backtickRatio ? '`' : '"';
+        line.append(quote).append(text).append(quote);
+    }
+
+    private String phrase(Random random, int words) {
+        StringBuilder phrase = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0)
+                phrase.append(' ');
+            phrase.append(word(random));
+        }
+        return phrase.toString();
+    }
+
+    private String word(Random random) {
+        int length = 1 + random.nextInt(2 * tokenLength - 1);
+        char[] word = new char[length];
+        for (int i = 0; i < length; i++)
+            word[i] = LETTERS.charAt(random.nextInt(LETTERS.length()));
+        return new String(word);
+    }
+
+    /** Writes a corpus to a directory.
+     *
+     * @param args the directory, then optionally the scale and the seed */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: CorpusGenerator <directory> [scale] [seed]");
+            System.exit(1);
+        }
+        CorpusGenerator generator = new CorpusGenerator();
+        if (args.length > 1)
+            generator.setScale(Integer.parseInt(args[1]));
+        if (args.length > 2)
+            generator.setSeed(Long.parseLong(args[2]));
+        List<Path> written = generator.write(Paths.get(args[0]));
+        System.out.println("Wrote " + written.size() + " files to " + args[0]);
+    }
+}
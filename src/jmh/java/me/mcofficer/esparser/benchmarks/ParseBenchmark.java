@@ -0,0 +1,92 @@
+/*
+ParseBenchmark.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser.benchmarks;
+
+import me.mcofficer.esparser.DataFile;
+import me.mcofficer.esparser.DataFileOptions;
+import me.mcofficer.esparser.DataNodeLogger;
+import me.mcofficer.esparser.corpus.CorpusGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Measures building a DataFile from each kind of input. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+    @Param({"1000", "10000"})
+    public int definitions;
+
+    private Path file;
+    private List<String> lines;
+    private final DataNodeLogger logger = new DataNodeLogger();
+    private final DataFileOptions mapped = new DataFileOptions().setMemoryMapped(true);
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        lines = new CorpusGenerator().setSeed(1).setDefinitions(definitions).generateFile(0);
+        file = Files.write(Files.createTempFile("esparser", ".txt"), lines, StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public DataFile fromFile() throws IOException {
+        return new DataFile(file.toString(), logger);
+    }
+
+    @Benchmark
+    public DataFile fromMappedFile() throws IOException {
+        return new DataFile(file.toString(), logger, mapped);
+    }
+
+    @Benchmark
+    public DataFile fromList() throws IOException {
+        return new DataFile(lines, logger);
+    }
+
+    @Benchmark
+    public DataFile fromStream() throws IOException {
+        return new DataFile(lines.stream(), logger);
+    }
+}
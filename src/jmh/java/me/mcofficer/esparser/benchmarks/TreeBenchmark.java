@@ -0,0 +1,112 @@
+/*
+TreeBenchmark.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser.benchmarks;
+
+import me.mcofficer.esparser.DataFile;
+import me.mcofficer.esparser.DataNode;
+import me.mcofficer.esparser.DataNodeLogger;
+import me.mcofficer.esparser.corpus.CorpusGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/** Measures reading an already parsed tree. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreeBenchmark {
+    @Param({"1000"})
+    public int definitions;
+
+    private DataFile data;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        data = new DataFile(new CorpusGenerator().setSeed(1).setDefinitions(definitions).generateFile(0), new DataNodeLogger());
+    }
+
+    @Benchmark
+    public void getChildrenFlat(Blackhole blackhole) {
+        for (DataNode node : data.getNodes())
+            blackhole.consume(node.getChildrenFlat());
+    }
+
+    @Benchmark
+    public long descendants() {
+        return data.descendants().count();
+    }
+
+    /** Reads every number in the file, the way stat calculators do. Tokens such as a lone
+     * "e" pass isNumberAt() but make valueAt() throw, so hasValue() picks the tokens to read. */
+    @Benchmark
+    public double valueAt() {
+        double sum = 0;
+        for (DataNode node : data.getNodes())
+            for (DataNode child : node.getChildrenFlat())
+                for (int i = 1; i < child.size(); i++)
+                    if (child.hasValue(i))
+                        sum += child.valueAt(i);
+        return sum;
+    }
+
+    /** Reads every number in the file with the allocation-free hasValue() and value(). */
+    @Benchmark
+    public double value() {
+        double sum = 0;
+        for (DataNode node : data.getNodes())
+            for (DataNode child : node.getChildrenFlat())
+                for (int i = 1; i < child.size(); i++)
+                    if (child.hasValue(i))
+                        sum += child.value(i);
+        return sum;
+    }
+
+    @Benchmark
+    public int isNumberAt() {
+        int numbers = 0;
+        for (DataNode node : data.getNodes())
+            for (DataNode child : node.getChildrenFlat())
+                for (int i = 0; i < child.size(); i++)
+                    if (child.isNumberAt(i))
+                        numbers++;
+        return numbers;
+    }
+
+    @Benchmark
+    public void copy(Blackhole blackhole) {
+        for (DataNode node : data.getNodes())
+            blackhole.consume(node.copy());
+    }
+}
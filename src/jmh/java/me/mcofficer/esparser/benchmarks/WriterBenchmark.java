@@ -0,0 +1,117 @@
+/*
+WriterBenchmark.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser.benchmarks;
+
+import me.mcofficer.esparser.DataFile;
+import me.mcofficer.esparser.DataNode;
+import me.mcofficer.esparser.DataNodeLogger;
+import me.mcofficer.esparser.corpus.CorpusGenerator;
+import me.mcofficer.esparser.DataWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/** Measures writing a tree back out as text. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriterBenchmark {
+    @Param({"1000"})
+    public int definitions;
+
+    private DataFile data;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        data = new DataFile(new CorpusGenerator().setSeed(1).setDefinitions(definitions).generateFile(0), new DataNodeLogger());
+        file = Files.createTempFile("esparser", ".txt");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public DataWriter write() {
+        DataWriter writer = new DataWriter(file);
+        for (DataNode node : data.getNodes())
+            writer.write(node);
+        return writer;
+    }
+
+    /** Saves the way save() does, which replaces the file without forcing it to disk. */
+    @Benchmark
+    public void writeAndSave() {
+        write().save();
+    }
+
+    /** Saves and forces the file and its directory to disk, to show what that costs over save(). */
+    @Benchmark
+    public void writeAndSaveAtomically() throws IOException {
+        write().saveAtomically(true);
+    }
+
+    /** Streams the tree to a channel that discards it, which should allocate next to nothing. */
+    @Benchmark
+    public void writeToChannel() throws IOException {
+        try (DataWriter writer = new DataWriter(new NullChannel())) {
+            for (DataNode node : data.getNodes())
+                writer.write(node);
+        }
+    }
+
+    private static class NullChannel implements WritableByteChannel {
+        @Override
+        public int write(ByteBuffer source) {
+            int length = source.remaining();
+            source.position(source.limit());
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {}
+    }
+}
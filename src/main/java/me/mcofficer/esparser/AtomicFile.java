@@ -0,0 +1,119 @@
+/*
+AtomicFile.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** Replaces files in one step, so that readers see either the old file or the complete new
+ * one. The new contents are written to a temporary file in the same directory, which is then
+ * moved over the target.
+ *
+ * The temporary file is created like any other new file, so it gets the default permissions
+ * of the process, not the private ones of Files.createTempFile. When the target already
+ * exists, its POSIX permissions are copied to the new file, so saving never changes who
+ * can read it. */
+class AtomicFile {
+    /** Writes the contents of a file. */
+    interface Contents {
+        /** @param out the stream to write to; it is flushed and closed by the caller */
+        void write(OutputStream out) throws IOException;
+    }
+
+    private AtomicFile() {}
+
+    /** Replaces a file with new contents. If the move cannot be atomic on this file system,
+     * the file is replaced by an ordinary move.
+     *
+     * @param target the file to replace or create
+     * @param force true to force the contents, and then the directory entry, to the storage
+     * device, so the file survives a crash or power loss
+     * @param contents writes the new contents
+     * @throws IOException if the file cannot be written, in which case it is left unchanged */
+    static void write(Path target, boolean force, Contents contents) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Path temp = null;
+        try {
+            FileChannel channel = null;
+            while (channel == null) {
+                temp = directory.resolve("." + target.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+                try {
+                    channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                }
+                catch (FileAlreadyExistsException e) {
+                    temp = null;
+                }
+            }
+            try (FileChannel file = channel) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(file));
+                contents.write(out);
+                out.flush();
+                if (force)
+                    file.force(true);
+            }
+            copyPermissions(target, temp);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+            if (force)
+                forceDirectory(directory);
+        }
+        finally {
+            if (temp != null)
+                Files.deleteIfExists(temp);
+        }
+    }
+
+    /** Gives the new file the POSIX permissions of the file it replaces, if there is one. */
+    private static void copyPermissions(Path target, Path temp) throws IOException {
+        if (!Files.exists(target))
+            return;
+        try {
+            Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(target));
+        }
+        catch (UnsupportedOperationException e) {
+            // Not a POSIX file system; the new file keeps the default permissions.
+        }
+    }
+
+    /** Forces a directory's entries to the storage device, so that a file moved into it
+     * survives a crash. Not all systems can open a directory, so failures are ignored. */
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+        catch (IOException e) {
+            // The move is still atomic; it is only less certain to survive a crash.
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ByteDataScanner.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/** A DataScanner that reads UTF-8 bytes from a ByteBuffer. All characters with meaning
+ * in the data format are ASCII, so the buffer is scanned without decoding it. Only the
+ * bytes of each token are decoded, when the token is created. */
+class ByteDataScanner extends DataScanner {
+    private final ByteBuffer buffer;
+    private final ByteBuffer reader;
+    private byte[] scratch = new byte[64];
+
+    /** Scans the bytes of buffer from start, up to but excluding end. Absolute indexing is
+     * used, so the position and limit of the buffer are ignored and left unchanged.
+     *
+     * @param buffer the UTF-8 bytes to scan
+     * @param start index of the first byte
+     * @param end index after the last byte */
+    ByteDataScanner(ByteBuffer buffer, int start, int end) {
+        this.buffer = buffer;
+        this.reader = buffer.duplicate();
+        this.pos = start;
+        this.limit = end;
+    }
+
+    @Override
+    protected int at(int i) {
+        return buffer.get(i) & 0xFF;
+    }
+
+    @Override
+    protected int whitespace(int i) {
+        int b = buffer.get(i) & 0xFF;
+        if (b < 0x80)
+            return Character.isWhitespace(b) ? 1 : 0;
+        // Outside ASCII, Character.isWhitespace is only true for characters from U+1680 to
+        // U+3000, which are all three bytes long in UTF-8 and start with E1, E2 or E3.
+        if (b < 0xE1 || b > 0xE3 || i + 2 >= limit)
+            return 0;
+        int b1 = buffer.get(i + 1) & 0xFF;
+        int b2 = buffer.get(i + 2) & 0xFF;
+        if ((b1 & 0xC0) != 0x80 || (b2 & 0xC0) != 0x80)
+            return 0;
+        int c = ((b & 0x0F) << 12) | ((b1 & 0x3F) << 6) | (b2 & 0x3F);
+        return Character.isWhitespace(c) ? 3 : 0;
+    }
+
+    @Override
+    protected String string(int from, int to) {
+        int length = to - from;
+        if (buffer.hasArray())
+            return decode(buffer.array(), buffer.arrayOffset() + from, length);
+        return decode(copy(from, to), 0, length);
+    }
+
+    /** Decodes UTF-8 bytes. Data files are almost entirely ASCII, which is checked for first,
+     * since ASCII bytes can be copied straight into a String without a charset decoder.
+     *
+     * @param bytes the array holding the bytes
+     * @param offset index of the first byte
+     * @param length the number of bytes
+     * @returns the decoded text */
+    static String decode(byte[] bytes, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++)
+            if (bytes[i] < 0)
+                return new String(bytes, offset, length, StandardCharsets.UTF_8);
+        return ascii(bytes, offset, length);
+    }
+
+    /** Creates a String from bytes that are known to be ASCII.
+     *
+     * @param bytes the array holding the bytes
+     * @param offset index of the first byte
+     * @param length the number of bytes
+     * @returns the text */
+    @SuppressWarnings("deprecation")
+    static String ascii(byte[] bytes, int offset, int length) {
+        return new String(bytes, 0, offset, length);
+    }
+
+    @Override
+    protected String intern(TokenInterner interner, int from, int to) {
+        int length = to - from;
+        if (buffer.hasArray())
+            return interner.intern(buffer.array(), buffer.arrayOffset() + from, length);
+        return interner.intern(copy(from, to), 0, length);
+    }
+
+    /** Copies a range of the buffer to the start of the scratch array.
+     *
+     * @returns the scratch array */
+    private byte[] copy(int from, int to) {
+        int length = to - from;
+        if (length > scratch.length)
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        reader.limit(to).position(from);
+        reader.get(scratch, 0, length);
+        return scratch;
+    }
+}
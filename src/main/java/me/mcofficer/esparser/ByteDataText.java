@@ -0,0 +1,103 @@
+/*
+ByteDataText.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/** DataText backed by a buffer of UTF-8 bytes, such as a memory-mapped file. No line
+ * Strings are kept. The offsets of the lines are found the first time lines are
+ * requested, and each line is decoded from the buffer when it is requested. */
+class ByteDataText implements DataText {
+    private final ByteBuffer buffer;
+    private volatile int[] offsets;
+
+    /** @param buffer the UTF-8 text, from index 0 up to its limit */
+    ByteDataText(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int lineCount() {
+        return offsets().length / 2;
+    }
+
+    @Override
+    public List<String> lines(int first, int end) {
+        int[] offsets = offsets();
+        int stop = Math.min(end, offsets.length / 2);
+        if (stop <= first)
+            return Collections.emptyList();
+        ByteBuffer reader = buffer.duplicate();
+        ArrayList<String> lines = new ArrayList<>(stop - first);
+        byte[] bytes = new byte[0];
+        for (int i = first; i < stop; i++) {
+            int from = offsets[2 * i];
+            int length = offsets[2 * i + 1] - from;
+            if (bytes.length < length + 1)
+                bytes = new byte[length + 1];
+            reader.limit(from + length).position(from);
+            reader.get(bytes, 0, length);
+            bytes[length] = '\n';
+            lines.add(new String(bytes, 0, length + 1, StandardCharsets.UTF_8));
+        }
+        return lines;
+    }
+
+    @Override
+    public DataScanner scanner() {
+        return new ByteDataScanner(buffer, 0, buffer.limit());
+    }
+
+    @Override
+    public DataScanner scanner(int first, int end) {
+        int[] offsets = offsets();
+        int count = offsets.length / 2;
+        int from = first < count ? offsets[2 * first] : buffer.limit();
+        int to = end < count ? offsets[2 * end] : buffer.limit();
+        DataScanner scanner = new ByteDataScanner(buffer, from, Math.max(from, to));
+        scanner.setNextLine(first);
+        return scanner;
+    }
+
+    /** Finds the start and end of every line, the first time it is needed.
+     *
+     * @returns pairs of start and end offsets, two per line */
+    private int[] offsets() {
+        int[] offsets = this.offsets;
+        if (offsets != null)
+            return offsets;
+        offsets = new int[64];
+        int count = 0;
+        DataScanner scanner = scanner();
+        while (scanner.nextLine()) {
+            if (count + 2 > offsets.length)
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            offsets[count++] = scanner.lineStart();
+            offsets[count++] = scanner.lineEnd();
+        }
+        offsets = Arrays.copyOf(offsets, count);
+        this.offsets = offsets;
+        return offsets;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+CharDataScanner.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+/** A DataScanner that reads from a char[] buffer. */
+class CharDataScanner extends DataScanner {
+    protected char[] buffer;
+
+    /** Scans the characters of buffer from start, up to but excluding end.
+     *
+     * @param buffer the characters to scan
+     * @param start index of the first character
+     * @param end index after the last character */
+    CharDataScanner(char[] buffer, int start, int end) {
+        this.buffer = buffer;
+        this.pos = start;
+        this.limit = end;
+    }
+
+    @Override
+    protected int at(int i) {
+        return buffer[i];
+    }
+
+    @Override
+    protected int whitespace(int i) {
+        return Character.isWhitespace(buffer[i]) ? 1 : 0;
+    }
+
+    @Override
+    protected String string(int from, int to) {
+        return new String(buffer, from, to - from);
+    }
+
+    @Override
+    protected String intern(TokenInterner interner, int from, int to) {
+        return interner.intern(buffer, from, to - from);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+CharDataText.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/** DataText that keeps all lines in one char[] with the offset of each line, instead of
+ * one String per line. Line Strings are only created when they are requested. */
+class CharDataText implements DataText {
+    private final char[] buffer;
+    private final int[] offsets;
+
+    /** Copies the lines into a single buffer.
+     *
+     * @param lines the lines of the text. Anything after an end-of-line character in a line
+     * is kept for lines(), but ignored by the scanner, as in LineDataScanner. */
+    CharDataText(Iterator<String> lines) {
+        char[] buffer = new char[4096];
+        int[] offsets = new int[257];
+        int count = 0;
+        int size = 0;
+        while (lines.hasNext()) {
+            String line = lines.next();
+            int length = line.length();
+            if (size + length > buffer.length)
+                buffer = Arrays.copyOf(buffer, Math.max(size + length, buffer.length * 2));
+            line.getChars(0, length, buffer, size);
+            size += length;
+            if (count + 2 > offsets.length)
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            offsets[++count] = size;
+        }
+        this.buffer = Arrays.copyOf(buffer, size);
+        this.offsets = Arrays.copyOf(offsets, count + 1);
+    }
+
+    @Override
+    public int lineCount() {
+        return offsets.length - 1;
+    }
+
+    @Override
+    public List<String> lines(int first, int end) {
+        int stop = Math.min(end, lineCount());
+        if (stop <= first)
+            return Collections.emptyList();
+        ArrayList<String> lines = new ArrayList<>(stop - first);
+        char[] line = new char[0];
+        for (int i = first; i < stop; i++) {
+            int from = offsets[i];
+            int length = offsets[i + 1] - from;
+            if (length > 0 && buffer[from + length - 1] == '\n') {
+                lines.add(new String(buffer, from, length));
+                continue;
+            }
+            if (line.length < length + 1)
+                line = new char[length + 1];
+            System.arraycopy(buffer, from, line, 0, length);
+            line[length] = '\n';
+            lines.add(new String(line, 0, length + 1));
+        }
+        return lines;
+    }
+
+    @Override
+    public DataScanner scanner() {
+        return scanner(0, lineCount());
+    }
+
+    @Override
+    public DataScanner scanner(int first, int end) {
+        DataScanner scanner = new Scanner(buffer, offsets, first, Math.max(first, Math.min(end, lineCount())));
+        scanner.setNextLine(first);
+        return scanner;
+    }
+
+    /** Scans the lines of a CharDataText one at a time, as their offsets describe. */
+    private static class Scanner extends CharDataScanner {
+        private final int[] offsets;
+        private int next;
+        private final int end;
+
+        Scanner(char[] buffer, int[] offsets, int first, int end) {
+            super(buffer, 0, 0);
+            this.offsets = offsets;
+            this.next = first;
+            this.end = end;
+            this.linePerFill = true;
+        }
+
+        @Override
+        protected boolean fill() {
+            if (next >= end)
+                return false;
+            pos = offsets[next];
+            limit = offsets[++next];
+            return true;
+        }
+    }
+}
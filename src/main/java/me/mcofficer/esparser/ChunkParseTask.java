@@ -0,0 +1,56 @@
+/*
+ChunkParseTask.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import java.util.concurrent.RecursiveTask;
+
+/** Parses a range of lines that starts with a top-level node, for parallel parsing of a
+ * single DataFile. The result is a temporary root holding the top-level nodes of the range. */
+class ChunkParseTask extends RecursiveTask<DataNode> {
+    private static final long serialVersionUID = 1L;
+
+    private final DataFile file;
+    private final DataText text;
+    private final int first;
+    private final int end;
+    private final DataEventParser parser;
+    private final DataNodeLogger logger;
+
+    /** @param file the DataFile to set as the file of each node
+     * @param text the text being parsed
+     * @param first the first line of the chunk, which must hold a top-level node
+     * @param end the line after the last one in the chunk
+     * @param parser the parser to use
+     * @param logger the logger for new nodes */
+    ChunkParseTask(DataFile file, DataText text, int first, int end, DataEventParser parser, DataNodeLogger logger) {
+        this.file = file;
+        this.text = text;
+        this.first = first;
+        this.end = end;
+        this.parser = parser;
+        this.logger = logger;
+    }
+
+    @Override
+    protected DataNode compute() {
+        DataNode chunk = new DataNode(null, null, null, logger);
+        parser.parse(text.scanner(first, end), new DataTreeBuilder(file, chunk, logger));
+        return chunk;
+    }
+}
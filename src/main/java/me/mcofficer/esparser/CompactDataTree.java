@@ -0,0 +1,250 @@
+/*
+CompactDataTree.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/** A read-only tree of nodes stored in a few int arrays and one pool of tokens, instead of
+ * one DataNode object per line. Nodes are identified by their index, in the order they
+ * appear in the input. Use -1 as the parent of the top-level nodes, so getFirstChild(-1)
+ * is the first top-level node.
+ *
+ * For code that expects DataNodes, getNodes() and getNode() return lightweight DataNode
+ * views. A view is created on request, and creates the views of its tokens and children
+ * the first time they are used. The tree does not keep the views, so they can be garbage
+ * collected as soon as the caller is done with them, and changes to a view are not
+ * written back to the tree. Views have no DataFile, so their getLines() is empty. */
+public class CompactDataTree implements NodeTable {
+    private int count = 0;
+    private int[] parent = new int[64];
+    private int[] firstChild = new int[64];
+    private int[] nextSibling = new int[64];
+    private int[] firstLine = new int[64];
+    private int[] lastLine = new int[64];
+    private int[] tokenStart = new int[65];
+    private String[] tokens = new String[256];
+    private int firstNode = -1;
+    private final DataNodeLogger logger;
+
+    public CompactDataTree(String file) throws IOException {
+        this(file, new DataNodeLogger(), new DataFileOptions());
+    }
+
+    public CompactDataTree(List<String> data) {
+        this(data.stream(), new DataNodeLogger(), new DataFileOptions());
+    }
+
+    public CompactDataTree(Stream<String> data) {
+        this(data, new DataNodeLogger(), new DataFileOptions());
+    }
+
+    /** Parses a file into a compact tree. Only the memory-mapping and interning options apply.
+     *
+     * @param file the file to parse
+     * @param logger the logger for syntax errors and views
+     * @param options the options for reading the file */
+    public CompactDataTree(String file, DataNodeLogger logger, DataFileOptions options) throws IOException {
+        this.logger = logger;
+        if (options.isMemoryMapped())
+            parse(new ByteDataText(DataFile.map(Paths.get(file))).scanner(), options);
+        else
+            parse(new ByteDataText(DataFile.read(Paths.get(file))).scanner(), options);
+    }
+
+    /** Parses lines into a compact tree. Only the interning option applies.
+     *
+     * @param data the lines to parse
+     * @param logger the logger for syntax errors and views
+     * @param options the options for parsing */
+    public CompactDataTree(Stream<String> data, DataNodeLogger logger, DataFileOptions options) {
+        this.logger = logger;
+        parse(new LineDataScanner(data.iterator()), options);
+    }
+
+    /** The number of nodes in the tree, at all depths */
+    public int size() {
+        return count;
+    }
+
+    /** @param node a node index, or -1 for the top level
+     * @returns the index of the first child, or -1 if there are no children */
+    public int getFirstChild(int node) {
+        return node < 0 ? firstNode : firstChild[node];
+    }
+
+    /** @returns the index of the next node with the same parent, or -1 if this is the last one */
+    public int getNextSibling(int node) {
+        return nextSibling[node];
+    }
+
+    /** @returns the index of the parent, or -1 for a top-level node */
+    public int getParent(int node) {
+        return parent[node];
+    }
+
+    /** @returns the number of tokens on the node's line */
+    public int getTokenCount(int node) {
+        return tokenStart[node + 1] - tokenStart[node];
+    }
+
+    /** @param node the node index
+     * @param index the index of the token on the node's line
+     * @returns the token */
+    public String getToken(int node, int index) {
+        if (index < 0 || index >= getTokenCount(node))
+            throw new IndexOutOfBoundsException("Token " + index + " of node " + node);
+        return tokens[tokenStart[node] + index];
+    }
+
+    /** @returns the zero-based index of the node's first line, as in DataNode.getFirstLine() */
+    public int getFirstLine(int node) {
+        return firstLine[node];
+    }
+
+    /** @returns the zero-based index of the node's last line, as in DataNode.getLastLine() */
+    public int getLastLine(int node) {
+        return lastLine[node];
+    }
+
+    /** Creates DataNode views of the top-level nodes.
+     *
+     * @returns a new list of new views */
+    public ArrayList<DataNode> getNodes() {
+        return getChildren(-1);
+    }
+
+    /** Creates a DataNode view of one node.
+     *
+     * @param node the node index
+     * @returns a new view */
+    public DataNode getNode(int node) {
+        DataNode view = new DataNode(null, null, null, logger);
+        view.setFirstLine(firstLine[node]);
+        view.setLastLine(lastLine[node]);
+        view.setLoader(new CompactNodeLoader(this, node));
+        return view;
+    }
+
+    /** Creates the DataNode views of the children of a node.
+     *
+     * @param node the node index, or -1 for the top level
+     * @returns a new list of new views */
+    @Override
+    public ArrayList<DataNode> getChildren(int node) {
+        ArrayList<DataNode> children = new ArrayList<>();
+        for (int child = getFirstChild(node); child >= 0; child = nextSibling[child])
+            children.add(getNode(child));
+        return children;
+    }
+
+    /** Copies the tokens of a node into a new list.
+     *
+     * @param node the node index */
+    @Override
+    public ArrayList<String> getTokens(int node) {
+        return new ArrayList<>(Arrays.asList(tokens).subList(tokenStart[node], tokenStart[node + 1]));
+    }
+
+    @Override
+    public DataNodeLogger getLogger() {
+        return logger;
+    }
+
+    private void parse(DataScanner scanner, DataFileOptions options) {
+        new DataEventParser().setReportComments(false).setInterner(options.getInterner())
+                .parse(scanner, new Builder());
+        parent = Arrays.copyOf(parent, count);
+        firstChild = Arrays.copyOf(firstChild, count);
+        nextSibling = Arrays.copyOf(nextSibling, count);
+        firstLine = Arrays.copyOf(firstLine, count);
+        lastLine = Arrays.copyOf(lastLine, count);
+        tokenStart = Arrays.copyOf(tokenStart, count + 1);
+        tokens = Arrays.copyOf(tokens, tokenStart[count]);
+    }
+
+    /** Fills the arrays from parser events. */
+    private class Builder implements DataEventHandler {
+        private int[] stack = new int[16];
+        private int[] lastChild = new int[16];
+
+        Builder() {
+            lastChild[0] = -1;
+        }
+
+        @Override
+        public void beginNode(ArrayList<String> line, int index, int depth) {
+            int node = count++;
+            if (node == parent.length) {
+                int size = node * 2;
+                parent = Arrays.copyOf(parent, size);
+                firstChild = Arrays.copyOf(firstChild, size);
+                nextSibling = Arrays.copyOf(nextSibling, size);
+                firstLine = Arrays.copyOf(firstLine, size);
+                lastLine = Arrays.copyOf(lastLine, size);
+                tokenStart = Arrays.copyOf(tokenStart, size + 1);
+            }
+            if (depth + 1 >= stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+                lastChild = Arrays.copyOf(lastChild, stack.length);
+            }
+
+            parent[node] = depth == 0 ? -1 : stack[depth - 1];
+            firstChild[node] = -1;
+            nextSibling[node] = -1;
+            firstLine[node] = index;
+            lastLine[node] = index;
+            int previous = lastChild[depth];
+            if (previous >= 0)
+                nextSibling[previous] = node;
+            else if (depth == 0)
+                firstNode = node;
+            else
+                firstChild[stack[depth - 1]] = node;
+            lastChild[depth] = node;
+            stack[depth] = node;
+            lastChild[depth + 1] = -1;
+
+            int start = tokenStart[node];
+            int end = start + line.size();
+            if (end > tokens.length)
+                tokens = Arrays.copyOf(tokens, Math.max(end, tokens.length * 2));
+            for (int i = 0; i < line.size(); i++)
+                tokens[start + i] = line.get(i);
+            tokenStart[node + 1] = end;
+        }
+
+        @Override
+        public void endNode(int index, int depth) {
+            lastLine[stack[depth]] = index;
+        }
+
+        @Override
+        public void error(String message, int index) {
+            ArrayList<String> trace = new ArrayList<>();
+            trace.add("L" + index + ": " + String.join(" ", getTokens(count - 1)));
+            logger.log(message, trace);
+        }
+    }
+}
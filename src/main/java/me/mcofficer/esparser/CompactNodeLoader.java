@@ -0,0 +1,45 @@
+/*
+CompactNodeLoader.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import java.util.ArrayList;
+
+/** Fills a DataNode view of a NodeTable node, such as in a CompactDataTree, with its tokens and child views. */
+class CompactNodeLoader implements NodeLoader {
+    private final NodeTable tree;
+    private final int node;
+
+    CompactNodeLoader(NodeTable tree, int node) {
+        this.tree = tree;
+        this.node = node;
+    }
+
+    @Override
+    public DataNode load(DataNode view) {
+        DataNode loaded = new DataNode(null, null, tree.getTokens(node), tree.getLogger());
+        for (DataNode child : tree.getChildren(node))
+            loaded.append(child);
+        return loaded;
+    }
+
+    @Override
+    public ArrayList<String> tokens(DataNode view) {
+        return tree.getTokens(node);
+    }
+}
@@ -0,0 +1,54 @@
+/*
+DataEventHandler.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import java.util.ArrayList;
+
+/** Receives the structure of a data file from a DataEventParser, one line at a time.
+ * All methods do nothing by default, so a handler only needs to override the events
+ * it cares about. Line numbers are zero-based indices of the input lines, as in
+ * DataNode.getFirstLine(). Depth is 0 for top-level nodes, 1 for their children, and so on. */
+public interface DataEventHandler {
+    /** Called for each node, when its first line is read.
+     *
+     * @param tokens the tokens on the node's line. The list is not reused by the parser, so the handler may keep it.
+     * @param line the index of the node's line
+     * @param depth the depth of the node */
+    default void beginNode(ArrayList<String> tokens, int line, int depth) {}
+
+    /** Called after the last child of a node has ended, when a line with the same or less
+     * indentation is found, or at the end of the input.
+     *
+     * @param line the index of the node's last line, which may be a blank or comment line
+     * @param depth the depth of the node, the same as in beginNode */
+    default void endNode(int line, int depth) {}
+
+    /** Called for each comment, whether it takes up a whole line or follows a node's tokens.
+     * A comment after tokens is reported after the beginNode for that line.
+     *
+     * @param text the comment, without the '#'
+     * @param line the index of the comment's line */
+    default void comment(String text, int line) {}
+
+    /** Called when a line has a syntax error, after the beginNode for that line.
+     *
+     * @param message a description of the error
+     * @param line the index of the line */
+    default void error(String message, int line) {}
+}
@@ -0,0 +1,150 @@
+/*
+DataEventParser.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import javax.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/** Parses the data format without building a tree, pushing each node to a DataEventHandler
+ * as it is read. Memory use depends only on the depth of the deepest node and the length
+ * of the longest line, so arbitrarily large inputs can be processed. DataFile builds its
+ * tree from these events. */
+public class DataEventParser {
+    private boolean reportComments = true;
+    private TokenInterner interner = null;
+
+    public DataEventParser() {}
+
+    /** Should comments be passed to DataEventHandler.comment? Disabling this avoids creating
+     * a String for each comment.
+     *
+     * @param reportComments true to report comments, which is the default
+     * @returns this object */
+    public DataEventParser setReportComments(boolean reportComments) {
+        this.reportComments = reportComments;
+        return this;
+    }
+
+    /** Sets the interner that shares equal tokens. The token lists given to beginNode will
+     * then hold shared String instances.
+     *
+     * @param interner the interner, or null to create a new String for every token
+     * @returns this object */
+    public DataEventParser setInterner(@Nullable TokenInterner interner) {
+        this.interner = interner;
+        return this;
+    }
+
+    /** Reads and parses a file, one line at a time.
+     *
+     * @param file the file to parse
+     * @param handler receives the events */
+    public void parse(String file, DataEventHandler handler) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(file));
+             Stream<String> lines = reader.lines()) {
+            parse(lines, handler);
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public void parse(List<String> data, DataEventHandler handler) {
+        parse(new LineDataScanner(data.iterator()), handler);
+    }
+
+    public void parse(Stream<String> data, DataEventHandler handler) {
+        parse(new LineDataScanner(data.iterator()), handler);
+    }
+
+    /** Reads every line from the scanner, and sends events to the handler.
+     *
+     * @param scanner the input, positioned before the first line to parse
+     * @param handler receives the events */
+    void parse(DataScanner scanner, DataEventHandler handler) {
+        boolean reportComments = this.reportComments;
+        if (interner != null)
+            scanner.setInterner(interner);
+        int[] whites = new int[16];
+        int depth = 0;
+        while (scanner.nextLine()) {
+            int line = scanner.line();
+            if (!scanner.hasNode()) {
+                if (reportComments && scanner.hasComment())
+                    handler.comment(scanner.comment(), line);
+                continue;
+            }
+
+            int white = scanner.indent();
+            while (depth > 0 && whites[depth - 1] >= white)
+                handler.endNode(line - 1, --depth);
+
+            ArrayList<String> tokens = new ArrayList<>();
+            boolean closed = scanner.tokenize(tokens);
+            if (depth == whites.length)
+                whites = Arrays.copyOf(whites, depth * 2);
+            whites[depth] = white;
+            handler.beginNode(tokens, line, depth++);
+
+            if (!closed)
+                handler.error("Closing Quote is missing", line);
+            else if (reportComments && scanner.hasComment())
+                handler.comment(scanner.comment(), line);
+        }
+        int last = scanner.line();
+        while (depth > 0)
+            handler.endNode(last, --depth);
+    }
+
+    /** Finds the line span of each top-level node, reading only indentation. The last line
+     * of a node is the line before the next top-level node, as in endNode.
+     *
+     * @param scanner the input, positioned before the first line to read
+     * @returns the first and last line index of each top-level node, two per node */
+    static int[] topLevelSpans(DataScanner scanner) {
+        int[] spans = new int[32];
+        int count = 0;
+        int topWhite = -1;
+        while (scanner.nextLine()) {
+            if (!scanner.hasNode())
+                continue;
+            int white = scanner.indent();
+            if (topWhite >= 0 && white > topWhite)
+                continue;
+            if (count > 0)
+                spans[count - 1] = scanner.line() - 1;
+            if (count + 2 > spans.length)
+                spans = Arrays.copyOf(spans, spans.length * 2);
+            spans[count++] = scanner.line();
+            spans[count++] = -1;
+            topWhite = white;
+        }
+        if (count > 0)
+            spans[count - 1] = scanner.line();
+        return Arrays.copyOf(spans, count);
+    }
+}
@@ -29,25 +29,27 @@ package me.mcofficer.esparser;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Stack;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Stream;
 import java.util.Optional;
-import java.util.Collections;
 
 public class DataFile {
-    private List<String> lines = null;
+    private DataText text = null;
     private DataNode root;
     private File origin = null;
+    private ArrayList<DataIndex> indexes = null;
 
     public DataFile(String file) throws IOException {
-        this(Files.readAllLines(Paths.get(file)), new DataNodeLogger());
-        origin = new File(file);
+        this(file, new DataNodeLogger(), new DataFileOptions());
     }
 
     public DataFile(List<String> data) throws IOException {
@@ -59,19 +61,72 @@ public class DataFile {
     }
 
     public DataFile(String file, DataNodeLogger logger) throws IOException {
-        this(Files.readAllLines(Paths.get(file)), logger);
-        origin = new File(file);
+        this(file, logger, new DataFileOptions());
+    }
+
+    public DataFile(String file, DataFileOptions options) throws IOException {
+        this(file, new DataNodeLogger(), options);
+    }
+
+    public DataFile(String file, DataNodeLogger logger, DataFileOptions options) throws IOException {
+        this(new File(file), null, logger, options);
+    }
+
+    /** Parses a file, or contents that were already read from it, such as by DataFileCache.
+     * Contents that are given are parsed even if the options ask for a memory-mapped file,
+     * and the time taken to read them is not part of the metrics.
+     *
+     * @param origin the file
+     * @param content the contents of the file, or null to read or map it
+     * @param logger the logger for new nodes
+     * @param options how to read and parse the file */
+    DataFile(File origin, @Nullable byte[] content, DataNodeLogger logger, DataFileOptions options) throws IOException {
+        root = new DataNode(null, null, null, logger);
+        this.origin = origin;
+        ParseListener listener = options.getListener();
+        long allocated = listener == null ? 0 : ParseMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        ByteBuffer buffer = content != null ? ByteBuffer.wrap(content)
+                : options.isMemoryMapped() ? map(origin.toPath()) : read(origin.toPath());
+        long read = System.nanoTime();
+        parse(new ByteDataText(buffer), logger, options);
+        if (listener != null)
+            report(listener, read - start, System.nanoTime() - read, buffer.capacity(), allocated, options);
     }
 
     public DataFile(List<String> data, DataNodeLogger logger) throws IOException {
+        this(data, logger, new DataFileOptions());
+    }
+
+    /** Creates an empty DataFile, for nodes that were not parsed from text.
+     *
+     * @param origin the file the nodes came from, or null if unknown
+     * @param text the text for getLines()
+     * @param logger the logger for the root node */
+    DataFile(@Nullable File origin, DataText text, @Nullable DataNodeLogger logger) {
         root = new DataNode(null, null, null, logger);
-        this.lines = Collections.unmodifiableList(data);
-        parse(data, logger);
+        this.origin = origin;
+        this.text = text;
     }
 
     public DataFile(Stream<String> data, DataNodeLogger logger) throws IOException {
+        this(data, logger, new DataFileOptions());
+    }
+
+    public DataFile(List<String> data, DataNodeLogger logger, DataFileOptions options) throws IOException {
+        this(data.stream(), logger, options);
+    }
+
+    public DataFile(Stream<String> data, DataNodeLogger logger, DataFileOptions options) throws IOException {
         root = new DataNode(null, null, null, logger);
-        parse(data, logger);
+        ParseListener listener = options.getListener();
+        long allocated = listener == null ? 0 : ParseMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        DataText text = new CharDataText(data.iterator());
+        long read = System.nanoTime();
+        parse(text, logger, options);
+        if (listener != null)
+            report(listener, read - start, System.nanoTime() - read, -1, allocated, options);
     }
 
     /** Returns the lines from the input starting at first, up to but
@@ -83,12 +138,7 @@ public class DataFile {
      * @param end the line after the last one to return
      * @returns a modifiable list of the lines in that range */
     public List<String> getLines(int first, int end) {
-        List<String> lines = this.lines;
-        int size = lines.size();
-        int stop = end <= size ? end : size;
-        if(stop <= first)
-            return Collections.emptyList();
-        return lines.subList(first, end);
+        return text.lines(first, end);
     }
 
     /** What file the DataFile was read from.
@@ -113,98 +163,168 @@ public class DataFile {
         return root.getChildrenReversed();
     }
 
-    private void parse(List<String> data, @Nullable DataNodeLogger logger) {
-        parse(data.stream(), logger);
+    /** Streams every node in the file in depth-first order, at all depths. See DataNode.descendants().
+     *
+     * @returns a stream of all nodes */
+    public Stream<DataNode> descendants() {
+        return root.descendants();
     }
 
-    private static String ensureEoln(String in) {
-        return in.endsWith("\n") ? in : in + "\n";
+    /** Walks all nodes of the file in depth-first order. Top-level nodes have depth 0.
+     *
+     * @param visitor is told when each node is entered and left, and decides which subtrees to visit
+     * @returns false if the visitor terminated the walk, or true if it ran to the end */
+    public boolean walk(DataVisitor visitor) {
+        return DataWalker.walk(getNodes(), visitor);
     }
 
-    private void parse(Stream<String> data, @Nullable DataNodeLogger logger) {
-        List<String> eoln = data.map(s -> ensureEoln(s)).collect(Collectors.toList());
-        this.lines = Collections.unmodifiableList(eoln);
-        Stack<DataNode> stack = new Stack<>();
-        stack.add(root);
-        Stack<Integer> whiteStack = new Stack<>();
-        whiteStack.add(-1);
-        int iline = -1;
-        for (String line : eoln) {
-            iline++;
-            char[] chars = line.toCharArray();
-            int i = 0;
-            int white = 0;
-            while (i < chars.length && Character.isWhitespace(chars[i]) && chars[i] != '\n') {
-                white += 1;
-                i += 1;
-            }
+    /** Selects nodes with a path expression, such as {@code ship[Bactrian]/attributes}.
+     * The first step of the path matches the top-level nodes.
+     *
+     * @param path the compiled path
+     * @returns a lazy stream of the matching nodes */
+    public Stream<DataNode> select(DataPath path) {
+        return path.select(root);
+    }
+
+    /** Compiles a path expression and selects nodes with it. Use DataPath.compile() for paths
+     * that are evaluated more than once.
+     *
+     * @param path the path expression
+     * @returns a lazy stream of the matching nodes
+     * @throws IllegalArgumentException if the path is not valid */
+    public Stream<DataNode> select(String path) {
+        return select(DataPath.compile(path));
+    }
 
-            if (chars[i] == '#' | chars[i] == '\n')
-                continue;
+    /** Maps the entire file into memory, read-only.
+     *
+     * @param file the file to map
+     * @returns a buffer holding the file's contents */
+    static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
 
-            while (whiteStack.peek() >= white) {
-                whiteStack.pop();
-                stack.pop().setLastLine(iline - 1);
+    /** Reads the entire file into a heap buffer. Like a mapped file, it is parsed as UTF-8
+     * bytes, so no String is created for a line unless getLines() asks for it.
+     *
+     * @param file the file to read
+     * @returns a buffer holding the file's contents */
+    static ByteBuffer read(Path file) throws IOException {
+        return ByteBuffer.wrap(Files.readAllBytes(file));
+    }
+
+    private void parse(DataText text, @Nullable DataNodeLogger logger, DataFileOptions options) {
+        this.text = text;
+        DataEventParser parser = new DataEventParser().setReportComments(false)
+                .setInterner(options.getInterner());
+        if (options.isLazy())
+            parseLazily(text, parser, logger);
+        else if (options.isParallel())
+            parseInParallel(text, parser, logger, options);
+        else
+            parser.parse(text.scanner(), new DataTreeBuilder(this, root, logger));
+    }
+
+    /** Counts the parsed nodes and sends the metrics of this file to a listener.
+     *
+     * @param listener the listener
+     * @param read the time taken to read the input
+     * @param parse the time taken to parse it
+     * @param bytes the size of the file, or -1 if the input was not a file
+     * @param allocated the bytes allocated by this thread before reading, or -1 if unknown
+     * @param options the options the file was parsed with */
+    private void report(ParseListener listener, long read, long parse, long bytes, long allocated, DataFileOptions options) {
+        long allocatedNow = ParseMetrics.allocatedBytes();
+        long allocatedBytes = allocated < 0 || allocatedNow < 0 ? -1 : allocatedNow - allocated;
+        if (options.isLazy()) {
+            listener.parsed(new ParseMetrics(origin, read, parse, text.lineCount(), -1, getNodes().size(), -1, -1, bytes, allocatedBytes));
+            return;
+        }
+        long[] counts = new long[3];
+        DataWalker.walk(getNodes(), new DataVisitor() {
+            @Override
+            public Result enter(DataNode node, int depth) {
+                counts[0]++;
+                counts[1] += node.size();
+                counts[2] = Math.max(counts[2], depth);
+                return Result.CONTINUE;
             }
+        });
+        int maxDepth = counts[0] == 0 ? -1 : (int) counts[2];
+        listener.parsed(new ParseMetrics(origin, read, parse, text.lineCount(), counts[0], getNodes().size(), counts[1], maxDepth, bytes, allocatedBytes));
+    }
 
+    /** Creates only the top-level nodes, each knowing its line span. Their tokens and
+     * children are parsed from the text the first time they are needed.
+     *
+     * @param text the text to parse
+     * @param parser parses each node when it is needed
+     * @param logger the logger for new nodes */
+    private void parseLazily(DataText text, DataEventParser parser, @Nullable DataNodeLogger logger) {
+        int[] spans = DataEventParser.topLevelSpans(text.scanner());
+        for (int i = 0; i < spans.length; i += 2) {
             DataNode node = new DataNode(null, null, null, logger);
             node.setFile(this);
-            node.setFirstLine(iline);
-            stack.peek().append(node);
-
-            stack.add(node);
-            whiteStack.add(white);
-
-            while (i < chars.length && chars[i] != '\n') {
-                char endQuote = chars[i];
-                boolean isQuoted = false;
-                if (endQuote == '"' || endQuote == '`') {
-                    isQuoted = true;
-                    i += 1;
-                    if(i == chars.length)
-                        break;
-                }
-
-                String token = "";
-                if (isQuoted) {
-                    while (i < chars.length && chars[i] != '\n' && chars[i] != endQuote) {
-                        token += chars[i];
-                        i += 1;
-                    }
-                    if (i == chars.length || chars[i] != endQuote)
-                        node.printTrace("Closing Quote is missing");
-                    if(i == chars.length)
-                        break;
-                    i += 1;
-                }
-                else {
-                    while (i != chars.length && !Character.isWhitespace(chars[i])) {
-                        token += chars[i];
-                        i += 1;
-                    }
-                }
-                node.getTokens().add(token);
-
-                if (i >= chars.length)
-                    break;
-                if (chars[i] != '\n')
-                    while (i != chars.length && Character.isWhitespace(chars[i]) && chars[i] != '\n')
-                        i += 1;
-                if (chars[i] == '#')
-                    break;
-            }
+            node.setFirstLine(spans[i]);
+            node.setLastLine(spans[i + 1]);
+            node.setLoader(new LazyNodeLoader(text, parser, logger));
+            root.append(node);
         }
-        while (!whiteStack.empty()) {
-            whiteStack.pop();
-            stack.pop().setLastLine(iline);
+    }
+
+    /** Splits the text into chunks at top-level nodes, and parses the chunks concurrently.
+     * The top-level nodes of each chunk are then added to the root in their original order.
+     *
+     * @param text the text to parse
+     * @param parser parses each chunk
+     * @param logger the logger for new nodes
+     * @param options the pool and chunk size to use */
+    private void parseInParallel(DataText text, DataEventParser parser, @Nullable DataNodeLogger logger, DataFileOptions options) {
+        int[] spans = DataEventParser.topLevelSpans(text.scanner());
+        int minimum = options.getMinimumChunkLines();
+        ArrayList<ChunkParseTask> chunks = new ArrayList<>();
+        for (int i = 0; i < spans.length; i += 2) {
+            int first = spans[i];
+            while (i + 2 < spans.length && spans[i + 1] + 1 - first < minimum)
+                i += 2;
+            chunks.add(new ChunkParseTask(this, text, first, spans[i + 1] + 1, parser, logger));
         }
+
+        ForkJoinPool pool = options.getPool();
+        if (pool == null)
+            pool = ForkJoinPool.commonPool();
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(chunks)));
+        for (ChunkParseTask chunk : chunks)
+            for (DataNode node : new ArrayList<>(chunk.join().getChildren()))
+                root.append(node);
     }
 
     public void append(DataNode node) {
         root.append(node);
+        if (indexes != null)
+            for (DataIndex index : indexes)
+                index.added(this, node);
     }
 
     public void remove(DataNode node) {
         root.remove(node);
+        if (indexes != null)
+            for (DataIndex index : indexes)
+                index.removed(this, node);
+    }
+
+    /** Starts telling a DataIndex about appended and removed nodes. */
+    void addIndex(DataIndex index) {
+        if (indexes == null)
+            indexes = new ArrayList<>(1);
+        indexes.add(index);
+    }
+
+    void removeIndex(DataIndex index) {
+        if (indexes != null)
+            indexes.remove(index);
     }
 }
@@ -0,0 +1,134 @@
+/*
+DataFileCache.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/** Keeps the binary form of parsed DataFiles in a directory, so that unchanged files are
+ * loaded without parsing their text. Each source file has one cache entry, named by a hash
+ * of its absolute path. An entry is used without reading the source when the source's size
+ * and modification time match the entry; otherwise the source is read, and the entry is
+ * still used if the source's SHA-256 hash matches. If not, the bytes that were hashed are
+ * parsed, and the entry is replaced.
+ *
+ * DataFiles loaded from the cache are always fully built, whatever the lazy and parallel
+ * options say, and syntax errors are only logged when the text is parsed. Several threads
+ * and JVMs may use the same directory at once. */
+public class DataFileCache {
+    private final Path directory;
+
+    /** @param directory the cache directory; it is created if it does not exist */
+    public DataFileCache(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    public DataFile load(String file) throws IOException {
+        return load(file, new DataNodeLogger(), new DataFileOptions());
+    }
+
+    /** Loads a DataFile from the cache, or parses it and adds it to the cache.
+     *
+     * @param file the data file to load
+     * @param logger the logger for the DataFile
+     * @param options the options for parsing the file if it is not cached
+     * @returns the DataFile, with its origin set to the given file */
+    public DataFile load(String file, DataNodeLogger logger, DataFileOptions options) throws IOException {
+        Path source = Paths.get(file).toAbsolutePath().normalize();
+        Path entry = directory.resolve(entryName(source));
+        long size = Files.size(source);
+        long modified = Files.getLastModifiedTime(source).toMillis();
+
+        byte[] cached = read(entry);
+        DataFileCodec.Header header = cached != null ? DataFileCodec.header(cached) : null;
+        if (header != null && header.size == size && header.modified == modified) {
+            DataFile loaded = decode(cached, file, source, logger, options);
+            if (loaded != null)
+                return loaded;
+        }
+
+        byte[] content = Files.readAllBytes(source);
+        byte[] hash = DataFileCodec.hash(content);
+        if (header != null && Arrays.equals(header.hash, hash)) {
+            DataFile loaded = decode(cached, file, source, logger, options);
+            if (loaded != null) {
+                store(entry, loaded, size, modified, hash);
+                return loaded;
+            }
+        }
+
+        DataFile parsed = new DataFile(new File(file), content, logger, options);
+        store(entry, parsed, size, modified, hash);
+        return parsed;
+    }
+
+    /** Deletes all entries from the cache directory. */
+    public void clear() throws IOException {
+        File[] entries = directory.toFile().listFiles((dir, name) -> name.endsWith(".espb"));
+        if (entries != null)
+            for (File entry : entries)
+                Files.deleteIfExists(entry.toPath());
+    }
+
+    private static String entryName(Path source) {
+        byte[] hash = DataFileCodec.hash(source.toString().getBytes(StandardCharsets.UTF_8));
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 16; i++)
+            name.append(String.format("%02x", hash[i]));
+        return name.append(".espb").toString();
+    }
+
+    private static byte[] read(Path entry) {
+        try {
+            return Files.readAllBytes(entry);
+        }
+        catch (IOException e) {
+            return null;
+        }
+    }
+
+    /** Decodes an entry. Its lines are read from the source, not from the origin stored in the
+     * entry, which may be relative to another working directory. */
+    private static DataFile decode(byte[] cached, String file, Path source, DataNodeLogger logger, DataFileOptions options) {
+        try {
+            DataFile loaded = DataFileCodec.decode(cached, logger, options.getInterner(), source);
+            loaded.setOrigin(new File(file));
+            return loaded;
+        }
+        catch (IOException e) {
+            return null;
+        }
+    }
+
+    /** Writes an entry to a temporary file, then moves it into place, so that readers never
+     * see a partial entry. A failure to write only means the file isn't cached. */
+    private void store(Path entry, DataFile file, long size, long modified, byte[] hash) {
+        try {
+            AtomicFile.write(entry, false, out -> DataFileCodec.write(file, size, modified, hash, out));
+        }
+        catch (IOException e) {
+            // The cache is only an optimization.
+        }
+    }
+}
@@ -0,0 +1,291 @@
+/*
+DataFileCodec.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+
+/** Reads and writes a compact binary form of a parsed DataFile, so it can be loaded again
+ * without tokenizing. The format holds a pool of distinct tokens, the shape of the tree,
+ * the line numbers of each node, the origin path, and the size, modification time and
+ * SHA-256 hash of the source file.
+ *
+ * A decoded DataFile keeps only its origin path; getLines() reads the origin file the
+ * first time it is called. */
+public class DataFileCodec {
+    private static final int MAGIC = 0x45535042; // "ESPB"
+    private static final int VERSION = 1;
+
+    /** Information about the source file, stored at the start of the binary form. */
+    static class Header {
+        final long size;
+        final long modified;
+        final byte[] hash;
+
+        Header(long size, long modified, byte[] hash) {
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+        }
+    }
+
+    /** Writes the binary form of a DataFile. The whole tree is written, so a lazy DataFile
+     * is fully parsed first.
+     *
+     * @param file the DataFile to write
+     * @param sourceSize the size of the source file in bytes, or -1 if unknown
+     * @param sourceModified the modification time of the source file in milliseconds, or -1 if unknown
+     * @param sourceHash the SHA-256 hash of the source file, as from hash(), or an empty array if unknown
+     * @param out receives the binary form; it is flushed but not closed */
+    public static void write(DataFile file, long sourceSize, long sourceModified, byte[] sourceHash, OutputStream out) throws IOException {
+        HashMap<String, Integer> indices = new HashMap<>();
+        ArrayList<String> pool = new ArrayList<>();
+        ByteArrayOutputStream tree = new ByteArrayOutputStream();
+        ArrayList<DataNode> nodes = file.getNodes();
+        writeVarint(tree, nodes.size());
+        for (DataNode node : nodes)
+            writeNode(node, indices, pool, tree);
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeLong(sourceSize);
+        data.writeLong(sourceModified);
+        writeVarint(data, sourceHash.length);
+        data.write(sourceHash);
+        File origin = file.getOrigin().orElse(null);
+        if (origin == null)
+            writeVarint(data, 0);
+        else {
+            byte[] path = origin.getPath().getBytes(StandardCharsets.UTF_8);
+            writeVarint(data, path.length + 1);
+            data.write(path);
+        }
+        writeVarint(data, pool.size());
+        for (String token : pool) {
+            byte[] bytes = token.getBytes(StandardCharsets.UTF_8);
+            writeVarint(data, bytes.length);
+            data.write(bytes);
+        }
+        tree.writeTo(data);
+        data.flush();
+    }
+
+    /** Reads the binary form of a DataFile.
+     *
+     * @param in the binary form, which is read to its end but not closed
+     * @param logger the logger for the new nodes
+     * @returns the DataFile */
+    public static DataFile read(InputStream in, DataNodeLogger logger) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) > 0)
+            bytes.write(buffer, 0, read);
+        return decode(bytes.toByteArray(), logger, null, null);
+    }
+
+    /** Computes the SHA-256 hash of a file's contents, for use as the source hash. */
+    public static byte[] hash(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /** Reads only the source information from a binary form.
+     *
+     * @param bytes the binary form
+     * @returns the header, or null if the bytes are not in a supported format */
+    @Nullable
+    static Header header(byte[] bytes) {
+        try {
+            Reader reader = new Reader(bytes);
+            if (reader.readInt() != MAGIC || reader.readInt() != VERSION)
+                return null;
+            long size = reader.readLong();
+            long modified = reader.readLong();
+            return new Header(size, modified, reader.readBytes(reader.readVarint()));
+        }
+        catch (IOException e) {
+            return null;
+        }
+    }
+
+    /** Decodes a complete binary form.
+     *
+     * @param bytes the binary form
+     * @param logger the logger for the new nodes
+     * @param interner shares tokens with other files, or null
+     * @param source the file that getLines() reads, or null to read the stored origin path,
+     *               which is relative to the working directory of the writer if it was relative then
+     * @returns the DataFile */
+    static DataFile decode(byte[] bytes, DataNodeLogger logger, @Nullable TokenInterner interner, @Nullable Path source) throws IOException {
+        Reader reader = new Reader(bytes);
+        if (reader.readInt() != MAGIC)
+            throw new IOException("Not a binary DataFile");
+        int version = reader.readInt();
+        if (version != VERSION)
+            throw new IOException("Unsupported binary DataFile version " + version);
+        reader.readLong();
+        reader.readLong();
+        reader.readBytes(reader.readVarint());
+        int originLength = reader.readVarint();
+        File origin = originLength == 0 ? null : new File(reader.readString(originLength - 1));
+
+        String[] pool = new String[reader.readVarint()];
+        for (int i = 0; i < pool.length; i++) {
+            String token = reader.readString(reader.readVarint());
+            pool[i] = interner != null ? interner.intern(token) : token;
+        }
+
+        if (source == null && origin != null)
+            source = origin.toPath();
+        DataText text = source != null ? new PathDataText(source)
+                : new CharDataText(Collections.<String>emptyIterator());
+        DataFile file = new DataFile(origin, text, logger);
+        int count = reader.readVarint();
+        for (int i = 0; i < count; i++)
+            file.append(readNode(reader, pool, file, logger));
+        return file;
+    }
+
+    private static void writeNode(DataNode node, HashMap<String, Integer> indices, ArrayList<String> pool, OutputStream out) throws IOException {
+        writeVarint(out, node.getFirstLine() + 1);
+        writeVarint(out, node.getLastLine() + 1);
+        ArrayList<String> tokens = node.getTokens();
+        writeVarint(out, tokens.size());
+        for (String token : tokens) {
+            Integer index = indices.get(token);
+            if (index == null) {
+                index = pool.size();
+                indices.put(token, index);
+                pool.add(token);
+            }
+            writeVarint(out, index);
+        }
+        ArrayList<DataNode> children = node.getChildren();
+        writeVarint(out, children.size());
+        for (DataNode child : children)
+            writeNode(child, indices, pool, out);
+    }
+
+    private static DataNode readNode(Reader reader, String[] pool, DataFile file, DataNodeLogger logger) throws IOException {
+        int firstLine = reader.readVarint() - 1;
+        int lastLine = reader.readVarint() - 1;
+        int count = reader.readVarint();
+        ArrayList<String> tokens = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            tokens.add(pool[reader.readIndex(pool.length)]);
+        DataNode node = new DataNode(null, null, tokens, logger);
+        node.setFile(file);
+        node.setFirstLine(firstLine);
+        node.setLastLine(lastLine);
+        int children = reader.readVarint();
+        for (int i = 0; i < children; i++)
+            node.append(readNode(reader, pool, file, logger));
+        return node;
+    }
+
+    /** Writes an unsigned LEB128 integer. */
+    private static void writeVarint(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /** Reads values from a byte array, throwing an IOException if the data ends early. */
+    private static class Reader {
+        private final byte[] bytes;
+        private int pos = 0;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int readInt() throws IOException {
+            require(4);
+            int value = 0;
+            for (int i = 0; i < 4; i++)
+                value = (value << 8) | (bytes[pos++] & 0xFF);
+            return value;
+        }
+
+        long readLong() throws IOException {
+            long high = readInt() & 0xFFFFFFFFL;
+            return (high << 32) | (readInt() & 0xFFFFFFFFL);
+        }
+
+        int readVarint() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                require(1);
+                int b = bytes[pos++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0)
+                    return value;
+            }
+            throw new IOException("Malformed binary DataFile");
+        }
+
+        int readIndex(int size) throws IOException {
+            int index = readVarint();
+            if (index < 0 || index >= size)
+                throw new IOException("Malformed binary DataFile");
+            return index;
+        }
+
+        byte[] readBytes(int length) throws IOException {
+            require(length);
+            byte[] value = Arrays.copyOfRange(bytes, pos, pos + length);
+            pos += length;
+            return value;
+        }
+
+        String readString(int length) throws IOException {
+            require(length);
+            String value = new String(bytes, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+
+        private void require(int length) throws IOException {
+            if (length < 0 || length > bytes.length - pos)
+                throw new IOException("Binary DataFile is truncated");
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+DataFileOptions.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.ForkJoinPool;
+
+/** Settings that change how a DataFile reads and parses its input. The defaults match
+ * the behavior of the DataFile constructors that take no options. */
+public class DataFileOptions {
+    private boolean memoryMapped = false;
+    private boolean lazy = false;
+    private boolean parallel = false;
+    private ForkJoinPool pool = null;
+    private int minimumChunkLines = 2048;
+    private TokenInterner interner = null;
+    private ParseListener listener = null;
+
+    public DataFileOptions() {}
+
+    /** Copies all settings of another options object.
+     *
+     * @param other the options to copy */
+    public DataFileOptions(DataFileOptions other) {
+        memoryMapped = other.memoryMapped;
+        lazy = other.lazy;
+        parallel = other.parallel;
+        pool = other.pool;
+        minimumChunkLines = other.minimumChunkLines;
+        interner = other.interner;
+        listener = other.listener;
+    }
+
+    /** Should files be memory-mapped instead of read into the heap? Either way, a file is
+     * parsed from its bytes, decoding only the bytes of each token. A file that is read is
+     * copied into a byte array that the DataFile keeps; a mapped file is not copied, and the
+     * DataFile keeps the mapping instead, so the file's size does not count against the heap.
+     * The mapping is released when the DataFile and its DataNodes are garbage collected; until
+     * then, some operating systems will not allow the file to be deleted. Files must be
+     * smaller than 2 GiB either way.
+     *
+     * @param memoryMapped true to map files, or false to read them
+     * @returns this object */
+    public DataFileOptions setMemoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+        return this;
+    }
+
+    /** Are files memory-mapped, as by setMemoryMapped?
+     *
+     * @returns true if files are mapped */
+    public boolean isMemoryMapped() {
+        return memoryMapped;
+    }
+
+    /** Should nodes be parsed lazily? A lazy DataFile only finds where each top-level node
+     * starts and ends. The tokens and children of a top-level node, and its whole subtree,
+     * are parsed the first time any of them are used. This makes loading faster and smaller
+     * when only some of the top-level nodes are used. The DataFile keeps its input until
+     * all nodes are parsed, and syntax errors are only logged when a node is parsed.
+     *
+     * @param lazy true to parse lazily, or false to parse everything immediately
+     * @returns this object */
+    public DataFileOptions setLazy(boolean lazy) {
+        this.lazy = lazy;
+        return this;
+    }
+
+    /** Are nodes parsed lazily, as by setLazy?
+     *
+     * @returns true if nodes are parsed lazily */
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /** Should a single file be parsed on several threads? The file is split into chunks of
+     * whole top-level nodes, which are parsed concurrently and then joined in order. This
+     * only helps with very large files. Syntax errors may be logged out of order, and from
+     * several threads at once. Lazy parsing takes precedence over parallel parsing.
+     *
+     * @param parallel true to parse in parallel
+     * @returns this object */
+    public DataFileOptions setParallel(boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    /** Is a single file parsed on several threads, as by setParallel?
+     *
+     * @returns true if files are parsed in parallel */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /** Sets the pool for parallel parsing.
+     *
+     * @param pool the pool, or null to use the common ForkJoinPool
+     * @returns this object */
+    public DataFileOptions setPool(@Nullable ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /** @returns the pool for parallel parsing, or null for the common ForkJoinPool */
+    @Nullable
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /** Sets the smallest number of lines in a chunk for parallel parsing. Chunks always hold
+     * whole top-level nodes, so a chunk may be larger.
+     *
+     * @param lines the minimum number of lines per chunk
+     * @returns this object */
+    public DataFileOptions setMinimumChunkLines(int lines) {
+        this.minimumChunkLines = lines;
+        return this;
+    }
+
+    /** @returns the smallest number of lines in a chunk for parallel parsing */
+    public int getMinimumChunkLines() {
+        return minimumChunkLines;
+    }
+
+    /** Sets the interner that shares equal tokens between nodes. The same interner can be
+     * given to many loads, or TokenInterner.getGlobal() can be used, to share tokens between
+     * files too.
+     *
+     * @param interner the interner, or null to create a new String for every token
+     * @returns this object */
+    public DataFileOptions setInterner(@Nullable TokenInterner interner) {
+        this.interner = interner;
+        return this;
+    }
+
+    /** @returns the interner for tokens, or null if tokens are not interned */
+    @Nullable
+    public TokenInterner getInterner() {
+        return interner;
+    }
+
+    /** Sets a listener that is given the ParseMetrics of each file after it is parsed. Without
+     * a listener, nothing is measured.
+     *
+     * @param listener the listener, or null for none
+     * @returns this object */
+    public DataFileOptions setListener(@Nullable ParseListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /** @returns the listener for parse metrics, or null if there is none */
+    @Nullable
+    public ParseListener getListener() {
+        return listener;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+DataIndex.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/** Finds top-level definitions, such as {@code ship "Bactrian"} or {@code outfit "Heavy Laser"},
+ * by their first two tokens. Every definition is kept, in load order, so plugin overrides
+ * remain visible: the last node in a list is the one that takes effect.
+ *
+ * Files are indexed in the order they are added. After that, nodes added or removed with
+ * DataFile.append and DataFile.remove update the index. Changes to the tokens of an indexed
+ * node, or nodes removed some other way, are not seen. A DataIndex is not thread-safe.
+ *
+ * Indexing a lazy DataFile does not load its nodes: only the first line of each top-level
+ * node is parsed, to find its type and name. */
+public class DataIndex {
+    private final HashMap<String, HashMap<String, ArrayList<DataNode>>> types = new HashMap<>();
+    private final IdentityHashMap<DataFile, Integer> files = new IdentityHashMap<>();
+    private final IdentityHashMap<DataNode, Integer> order = new IdentityHashMap<>();
+    private int nextFile = 0;
+
+    public DataIndex() {}
+
+    /** @param files the files to index, in load order */
+    public DataIndex(Collection<DataFile> files) {
+        for (DataFile file : files)
+            add(file);
+    }
+
+    /** Indexes the top-level nodes of a file, after all files added before it. The index
+     * then follows changes made with append and remove on that file.
+     *
+     * @param file the file to add */
+    public void add(DataFile file) {
+        if (files.containsKey(file))
+            return;
+        files.put(file, nextFile++);
+        file.addIndex(this);
+        for (DataNode node : file.getNodes())
+            added(file, node);
+    }
+
+    /** Removes all nodes of a file from the index, and stops following its changes.
+     *
+     * @param file the file to remove */
+    public void remove(DataFile file) {
+        if (!files.containsKey(file))
+            return;
+        for (DataNode node : file.getNodes())
+            removed(file, node);
+        file.removeIndex(this);
+        files.remove(file);
+    }
+
+    /** Finds all definitions with the given type and name, in load order.
+     *
+     * @param type the first token, such as "ship"
+     * @param name the second token, or "" for nodes with only one token
+     * @returns an unmodifiable list of the nodes, which is empty if there are none */
+    public List<DataNode> get(String type, String name) {
+        HashMap<String, ArrayList<DataNode>> names = types.get(type);
+        ArrayList<DataNode> nodes = names != null ? names.get(name) : null;
+        return nodes != null ? Collections.unmodifiableList(nodes) : Collections.<DataNode>emptyList();
+    }
+
+    /** Finds the definition that takes effect: the last one loaded.
+     *
+     * @param type the first token, such as "ship"
+     * @param name the second token, or "" for nodes with only one token
+     * @returns the node, or an empty Optional if there is none */
+    public Optional<DataNode> getLast(String type, String name) {
+        List<DataNode> nodes = get(type, name);
+        return nodes.isEmpty() ? Optional.empty() : Optional.of(nodes.get(nodes.size() - 1));
+    }
+
+    /** All names defined for a type
+     *
+     * @param type the first token, such as "ship"
+     * @returns an unmodifiable set of names */
+    public Set<String> getNames(String type) {
+        HashMap<String, ArrayList<DataNode>> names = types.get(type);
+        return names != null ? Collections.unmodifiableSet(names.keySet()) : Collections.<String>emptySet();
+    }
+
+    /** Called by DataFile when a top-level node is appended. */
+    void added(DataFile file, DataNode node) {
+        ArrayList<String> tokens = node.peekTokens();
+        if (tokens.isEmpty())
+            return;
+        int fileOrder = files.get(file);
+        ArrayList<DataNode> nodes = types.computeIfAbsent(tokens.get(0), k -> new HashMap<>())
+                .computeIfAbsent(name(tokens), k -> new ArrayList<>(1));
+        int position = nodes.size();
+        while (position > 0 && order.get(nodes.get(position - 1)) > fileOrder)
+            position--;
+        nodes.add(position, node);
+        order.put(node, fileOrder);
+    }
+
+    /** Called by DataFile when a top-level node is removed. */
+    void removed(DataFile file, DataNode node) {
+        if (order.remove(node) == null)
+            return;
+        ArrayList<String> tokens = node.peekTokens();
+        HashMap<String, ArrayList<DataNode>> names = types.get(tokens.get(0));
+        ArrayList<DataNode> nodes = names != null ? names.get(name(tokens)) : null;
+        if (nodes == null)
+            return;
+        for (int i = 0; i < nodes.size(); i++)
+            if (nodes.get(i) == node) {
+                nodes.remove(i);
+                break;
+            }
+        if (nodes.isEmpty())
+            names.remove(name(tokens));
+    }
+
+    private static String name(ArrayList<String> tokens) {
+        return tokens.size() > 1 ? tokens.get(1) : "";
+    }
+}
@@ -0,0 +1,210 @@
+/*
+DataLoader.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/** Parses many data files concurrently. The DataFiles are always returned in the order of
+ * the input files, so when the files come from Sources.getSources, later files override
+ * earlier ones just as if they had been loaded one by one.
+ *
+ * The logger is shared by all files, and may be called from several threads at once. */
+public class DataLoader {
+    private static final Method newVirtualThreadExecutor = findVirtualThreadExecutor();
+
+    private ExecutorService executor = null;
+    private DataNodeLogger logger = new DataNodeLogger();
+    private DataFileOptions options = new DataFileOptions();
+    private ParseMetricsRegistry metrics = null;
+
+    public DataLoader() {}
+
+    /** Sets the executor that parses the files. It is not shut down by the loader.
+     *
+     * @param executor the executor, or null to use virtual threads on Java 21 and newer, or
+     * the common ForkJoinPool otherwise
+     * @returns this object */
+    public DataLoader setExecutor(@Nullable ExecutorService executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /** @param logger the logger for all loaded files
+     * @returns this object */
+    public DataLoader setLogger(DataNodeLogger logger) {
+        this.logger = logger;
+        return this;
+    }
+
+    /** @param options the options for all loaded files
+     * @returns this object */
+    public DataLoader setOptions(DataFileOptions options) {
+        this.options = options;
+        return this;
+    }
+
+    /** Collects the ParseMetrics of every loaded file. When loading game and plugin data,
+     * the data directory and each plugin directory are added as roots, so the registry
+     * shows which of them take the longest to load.
+     *
+     * The JVM cannot measure the memory allocated by a virtual thread, so with the default
+     * executor on Java 21 and newer those files are counted by getFilesWithoutAllocation().
+     * Set an executor with platform threads to measure allocation.
+     *
+     * @param metrics the registry, or null to not measure loading
+     * @returns this object */
+    public DataLoader setMetrics(@Nullable ParseMetricsRegistry metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /** Loads the game data and plugin data, as found by Sources.getSources.
+     *
+     * @param dataPath the game's data directory
+     * @param pluginPath the directory holding the plugins, or null for no plugins
+     * @returns the parsed files, in the order of Sources.getSources */
+    public ArrayList<DataFile> load(Path dataPath, @Nullable Path pluginPath) throws IOException {
+        if (metrics != null) {
+            metrics.addRoot(dataPath);
+            File[] plugins = pluginPath == null ? null : pluginPath.toFile().listFiles(File::isDirectory);
+            if (plugins != null)
+                for (File plugin : plugins)
+                    metrics.addRoot(plugin.toPath());
+        }
+        return load(Sources.getSources(dataPath, pluginPath));
+    }
+
+    public ArrayList<DataFile> load(String dataPath, @Nullable String pluginPath) throws IOException {
+        Path _dataPath = Paths.get(dataPath).normalize();
+        Path _pluginPath = pluginPath == null ? null : Paths.get(pluginPath).normalize();
+        return load(_dataPath, _pluginPath);
+    }
+
+    /** Copies options, adding a listener that reports to the registry as well as to any
+     * listener the options already have. */
+    private static DataFileOptions withMetrics(DataFileOptions options, ParseMetricsRegistry metrics) {
+        ParseListener listener = options.getListener();
+        return new DataFileOptions(options).setListener(listener == null ? metrics : parsed -> {
+            listener.parsed(parsed);
+            metrics.parsed(parsed);
+        });
+    }
+
+    /** Parses all the given files concurrently. If any file fails to load, the first failure
+     * in file order is thrown, after all files have finished.
+     *
+     * @param files the files to parse
+     * @returns the parsed files, in the same order as the input */
+    public ArrayList<DataFile> load(List<File> files) throws IOException {
+        ExecutorService executor = this.executor;
+        ExecutorService owned = null;
+        if (executor == null) {
+            owned = createVirtualThreadExecutor();
+            executor = owned != null ? owned : ForkJoinPool.commonPool();
+        }
+        DataFileOptions options = metrics == null ? this.options : withMetrics(this.options, metrics);
+        try {
+            ArrayList<Future<DataFile>> futures = new ArrayList<>(files.size());
+            for (File file : files)
+                futures.add(executor.submit(() -> new DataFile(file.getPath(), logger, options)));
+            ArrayList<DataFile> loaded = new ArrayList<>(files.size());
+            Throwable failure = null;
+            for (Future<DataFile> future : futures) {
+                try {
+                    loaded.add(future.get());
+                }
+                catch (ExecutionException e) {
+                    Throwable error = unwrap(e.getCause());
+                    if (failure == null)
+                        failure = error;
+                    else if (failure != error)
+                        failure.addSuppressed(error);
+                }
+            }
+            if (failure instanceof IOException)
+                throw (IOException)failure;
+            if (failure instanceof RuntimeException)
+                throw (RuntimeException)failure;
+            if (failure instanceof Error)
+                throw (Error)failure;
+            if (failure != null)
+                throw new IOException(failure);
+            return loaded;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading data files");
+        }
+        finally {
+            if (owned != null)
+                owned.shutdown();
+        }
+    }
+
+    /** Finds the exception to report for a failed task. Some executors, such as ForkJoinPool,
+     * wrap checked exceptions in RuntimeExceptions, so the whole chain of causes is searched
+     * for an IOException. Other exceptions and errors are reported as they are.
+     *
+     * @param cause the exception thrown by the task
+     * @returns the IOException, if one is found, or else the cause itself */
+    private static Throwable unwrap(Throwable cause) {
+        for (Throwable t = cause; t != null; t = t.getCause())
+            if (t instanceof IOException)
+                return t;
+        return cause;
+    }
+
+    /** Creates an executor that starts a virtual thread per task, if the JVM has them.
+     *
+     * @returns the executor, or null before Java 21 */
+    @Nullable
+    private static ExecutorService createVirtualThreadExecutor() {
+        if (newVirtualThreadExecutor == null)
+            return null;
+        try {
+            return (ExecutorService)newVirtualThreadExecutor.invoke(null);
+        }
+        catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static Method findVirtualThreadExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        }
+        catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
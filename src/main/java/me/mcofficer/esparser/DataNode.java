@@ -36,9 +36,15 @@ import java.util.Optional;
 import java.io.File;
 import java.io.BufferedReader;
 import java.util.List;
+import java.util.HashMap;
 import java.io.IOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class DataNode {
+    /** Nodes with at least this many children get a hash index for getChild() */
+    private static final int CHILD_INDEX_THRESHOLD = 8;
 
     private DataNode parent;
     private ArrayList<DataNode> children;
@@ -47,6 +53,9 @@ public class DataNode {
     private WeakReference<DataFile> file;
     private int firstLine = -1;
     private int lastLine = -1;
+    private volatile NodeLoader loader;
+    private volatile ChildIndex childIndex;
+    private volatile TokenValues values;
 
     /** Creates a DataNode. Generally, this should only be called by a DataFile
      * @param parent The parent, or null if this is the root of the tree.
@@ -64,6 +73,7 @@ public class DataNode {
      *
      * @returns the length of the array returned by getTokens() */
     public int size() {
+        ensureLoaded();
         return tokens.size();
     }
 
@@ -71,6 +81,7 @@ public class DataNode {
      *
      * @returns an array of tokens */
     public ArrayList<String> getTokens() {
+        ensureLoaded();
         return tokens;
     }
 
@@ -95,6 +106,46 @@ public class DataNode {
         this.file = file != null ? new WeakReference<>(file) : null;
     }
 
+    /** Makes this node lazy: its tokens and children will be supplied by the loader the
+     * first time they are needed. Until then, the node's own tokens and children are ignored.
+     *
+     * @param loader supplies the contents of the node */
+    void setLoader(NodeLoader loader) {
+        this.loader = loader;
+    }
+
+    /** Loads the tokens and children of this node, if it is lazy and has not been loaded yet. */
+    private void ensureLoaded() {
+        if (loader != null)
+            load();
+    }
+
+    /** Gets the tokens of this node without loading the children of a lazy node. A lazy
+     * node that has not been loaded parses its first line again on each call.
+     *
+     * @returns the tokens, which must not be modified */
+    ArrayList<String> peekTokens() {
+        NodeLoader loader = this.loader;
+        return loader != null ? loader.tokens(this) : tokens;
+    }
+
+    /** @returns false if this node is lazy and its contents have not been loaded yet */
+    boolean isLoaded() {
+        return loader == null;
+    }
+
+    private synchronized void load() {
+        NodeLoader loader = this.loader;
+        if (loader == null)
+            return;
+        DataNode loaded = loader.load(this);
+        tokens = loaded.tokens;
+        children = loaded.children;
+        for (DataNode child : children)
+            child.parent = this;
+        this.loader = null;
+    }
+
     /** Gets the one-based line number of the first line in the file that this DataNode was read from
      *
      * @returns -1 if the information is unknown, or a number greater than 0 as the line number */
@@ -142,6 +193,7 @@ public class DataNode {
      * @param index The index to search; must be 0 or more. This is the index within getTokens()
      */
     public String token(int index) {
+        ensureLoaded();
         if (index > tokens.size())
             return "";
         else
@@ -153,12 +205,13 @@ public class DataNode {
      * @param index The index to search; must be 0 or more. This is the index within getTokens()
      * @returns the double at that index, or 0 if the token is not a number, or is beyond the last available token. */
     public double valueAt(int index) {
-        if (index > tokens.size() || !isNumberAt(index)) {
+        ensureLoaded();
+        TokenValues values = index < tokens.size() ? values(index) : null;
+        if (values == null || values.kinds[index] == TokenValues.TEXT) {
             printTrace("Cannot convert token at index " + index + " to a number.");
             return .0;
         }
-
-        return Double.valueOf(tokens.get(index));
+        return values.get(index);
     }
 
     /** Converts the string token at the given index to a double. Returns empty if the token is out-of-bounds or not a number (according to isNumberAt()). This uses the token from token() of that index
@@ -166,9 +219,37 @@ public class DataNode {
      * @param index The index to search; must be 0 or more. This is the index within getTokens()
      * @returns the double at that index, or an empty OptionalDouble if the token is not a number, or is beyond the last available token. */
     public OptionalDouble optionalValue(int index) {
-        if (index > tokens.size() || !isNumberAt(index))
+        ensureLoaded();
+        if (index >= tokens.size())
             return OptionalDouble.empty();
-        return OptionalDouble.of(Double.valueOf(tokens.get(index)));
+        TokenValues values = values(index);
+        if (values.kinds[index] == TokenValues.TEXT)
+            return OptionalDouble.empty();
+        return OptionalDouble.of(values.get(index));
+    }
+
+    /** Checks if value() can convert the token at the given index. Together with value(), this
+     * reads a number without allocating, unlike optionalValue(). Unlike isNumberAt(), this is false
+     * for tokens such as "-" or "." that look like numbers but cannot be converted.
+     *
+     * @param index The index to search; must be 0 or more. This is the index within getTokens()
+     * @returns true if the token exists and is a number, or false otherwise */
+    public boolean hasValue(int index) {
+        ensureLoaded();
+        return index < tokens.size() && values(index).kinds[index] == TokenValues.NUMBER;
+    }
+
+    /** Converts the token at the given index to a double, without logging anything. Check
+     * hasValue() first to tell a zero from a token that is not a number.
+     *
+     * @param index The index to search; must be 0 or more. This is the index within getTokens()
+     * @returns the double at that index, or 0 if hasValue() is false for it */
+    public double value(int index) {
+        ensureLoaded();
+        if (index >= tokens.size())
+            return .0;
+        TokenValues values = values(index);
+        return values.kinds[index] == TokenValues.NUMBER ? values.values[index] : .0;
     }
 
     /** Uses the same algorithm as in Endless Sky to decide if the token at a given index is a number. This is the token on the first line of the node, as from the token() function.
@@ -178,41 +259,105 @@ public class DataNode {
     public boolean isNumberAt(int index) {
         if (index >= size())
             return  false;
+        return values(index).kinds[index] != TokenValues.TEXT;
+    }
 
-        String token = tokens.get(index);
-
-        boolean hasDecimalPoint = false;
-        boolean hasExponent = false;
-        boolean isLeading = true;
+    /** Gets the classified tokens, classifying them again if the token at the given index was
+     * replaced since they were classified. Each token is classified on its own, so only the
+     * token being read and the number of tokens need to be checked: changes made through the
+     * list from getTokens() are still seen, without comparing the whole list on every call.
+     *
+     * @param index the index of the token that will be read; must be within the tokens
+     * @returns the values of the current tokens */
+    private TokenValues values(int index) {
+        ArrayList<String> tokens = this.tokens;
+        TokenValues values = this.values;
+        if (values == null || !values.matches(tokens, index)) {
+            values = new TokenValues(tokens);
+            this.values = values;
+        }
+        return values;
+    }
 
-        for (char c : token.toCharArray()) {
-            if (isLeading) {
-                isLeading = false;
-                if (c == '-' || c == '+')
+    /** The tokens of a node, classified as numbers or text, with the value of each number.
+     * Instances are never modified after construction, so they can be shared between threads. */
+    private static class TokenValues {
+        static final byte TEXT = 0;
+        static final byte NUMBER = 1;
+        /** Looks like a number to isNumber(), but Double.valueOf cannot parse it, like "-" or "." */
+        static final byte MALFORMED = 2;
+
+        final String[] tokens;
+        final byte[] kinds;
+        final double[] values;
+
+        TokenValues(ArrayList<String> tokens) {
+            int size = tokens.size();
+            this.tokens = tokens.toArray(new String[size]);
+            kinds = new byte[size];
+            values = new double[size];
+            for (int i = 0; i < size; i++) {
+                String token = this.tokens[i];
+                if (!isNumber(token))
                     continue;
+                try {
+                    values[i] = Double.parseDouble(token);
+                    kinds[i] = NUMBER;
+                } catch (NumberFormatException e) {
+                    kinds[i] = MALFORMED;
+                }
             }
+        }
 
-            if (c == '.') {
-                if (hasDecimalPoint || hasExponent)
-                    return false;
-                hasDecimalPoint = true;
-            }
-            else if (c == 'e' || c == 'E') {
-                if (hasExponent)
+        /** Checks that the token at an index is still the one that was classified. */
+        boolean matches(ArrayList<String> tokens, int index) {
+            return tokens.size() == this.tokens.length && tokens.get(index) == this.tokens[index];
+        }
+
+        /** Gets the value of a number token. For a malformed number, this throws the same
+         * NumberFormatException as parsing it directly. */
+        double get(int index) {
+            if (kinds[index] == MALFORMED)
+                return Double.valueOf(tokens[index]);
+            return values[index];
+        }
+
+        private static boolean isNumber(String token) {
+            boolean hasDecimalPoint = false;
+            boolean hasExponent = false;
+            boolean isLeading = true;
+
+            for (int i = 0, length = token.length(); i < length; i++) {
+                char c = token.charAt(i);
+                if (isLeading) {
+                    isLeading = false;
+                    if (c == '-' || c == '+')
+                        continue;
+                }
+
+                if (c == '.') {
+                    if (hasDecimalPoint || hasExponent)
+                        return false;
+                    hasDecimalPoint = true;
+                }
+                else if (c == 'e' || c == 'E') {
+                    if (hasExponent)
+                        return false;
+                    hasExponent = true;
+                    isLeading = true;
+                }
+                else if (!Character.isDigit(c))
                     return false;
-                hasExponent = true;
-                isLeading = true;
             }
-            else if (!Character.isDigit(c))
-                return false;
+            return true;
         }
-        return true;
     }
 
     /** Does the node have at least one DataNode child?
      *
      * @returns true if there is at least one DataNode child, or false otherwise */
     public boolean hasChildren() {
+        ensureLoaded();
         return !children.isEmpty();
     }
 
@@ -220,25 +365,150 @@ public class DataNode {
      *
      * @returns a list of children. If there are no children, the list is empty. */
     public ArrayList<DataNode> getChildren() {
+        ensureLoaded();
         return children;
     }
 
+    /** Finds the first child whose first token is the given key. Nodes with many children
+     * build a hash index of their children the first time this is called, which is kept
+     * until a child is added or removed. Only the first line of a lazy child is parsed to
+     * compare its key, so children that do not match are not loaded.
+     *
+     * @param key the first token of the child
+     * @returns the first matching child, or an empty Optional if there is none */
+    public Optional<DataNode> getChild(String key) {
+        ensureLoaded();
+        ChildIndex index = childIndex();
+        if (index != null) {
+            ArrayList<DataNode> found = index.children.get(key);
+            return found == null ? Optional.empty() : Optional.of(found.get(0));
+        }
+        for (DataNode child : children)
+            if (hasKey(child, key))
+                return Optional.of(child);
+        return Optional.empty();
+    }
+
+    /** Finds all children whose first token is the given key, in order. This uses the same
+     * index as getChild().
+     *
+     * @param key the first token of the children
+     * @returns an unmodifiable list of the matching children, which is empty if there are none */
+    public List<DataNode> getChildren(String key) {
+        ensureLoaded();
+        ChildIndex index = childIndex();
+        if (index != null) {
+            ArrayList<DataNode> found = index.children.get(key);
+            return found == null ? Collections.<DataNode>emptyList() : Collections.unmodifiableList(found);
+        }
+        ArrayList<DataNode> found = null;
+        for (DataNode child : children)
+            if (hasKey(child, key)) {
+                if (found == null)
+                    found = new ArrayList<>();
+                found.add(child);
+            }
+        return found == null ? Collections.<DataNode>emptyList() : Collections.unmodifiableList(found);
+    }
+
+    /** Checks the first token of a child without loading the child, if it is lazy. */
+    private static boolean hasKey(DataNode child, String key) {
+        ArrayList<String> tokens = child.peekTokens();
+        return !tokens.isEmpty() && tokens.get(0).equals(key);
+    }
+
+    /** Gets the index of the children by first token, building it if needed. The index is
+     * rebuilt if the number of children changed, in case the list from getChildren() was
+     * modified directly.
+     *
+     * @returns the index, or null if there are too few children to need one */
+    private ChildIndex childIndex() {
+        ArrayList<DataNode> children = this.children;
+        int size = children.size();
+        if (size < CHILD_INDEX_THRESHOLD)
+            return null;
+        ChildIndex index = childIndex;
+        if (index != null && index.size == size)
+            return index;
+        index = new ChildIndex(children);
+        childIndex = index;
+        return index;
+    }
+
+    /** Children grouped by their first token. Lazy children are indexed without being loaded. */
+    private static class ChildIndex {
+        final int size;
+        final HashMap<String, ArrayList<DataNode>> children = new HashMap<>();
+
+        ChildIndex(ArrayList<DataNode> nodes) {
+            size = nodes.size();
+            for (DataNode node : nodes) {
+                ArrayList<String> tokens = node.peekTokens();
+                if (!tokens.isEmpty())
+                    children.computeIfAbsent(tokens.get(0), k -> new ArrayList<>(1)).add(node);
+            }
+        }
+    }
+
+    /** Selects descendants with a path expression, such as {@code attributes/"cargo space"}.
+     * The first step of the path matches the children of this node.
+     *
+     * @param path the compiled path
+     * @returns a lazy stream of the matching nodes */
+    public Stream<DataNode> select(DataPath path) {
+        return path.select(this);
+    }
+
+    /** Compiles a path expression and selects descendants with it. Use DataPath.compile() for
+     * paths that are evaluated more than once.
+     *
+     * @param path the path expression
+     * @returns a lazy stream of the matching nodes
+     * @throws IllegalArgumentException if the path is not valid */
+    public Stream<DataNode> select(String path) {
+        return select(DataPath.compile(path));
+    }
+
     /** Walks the entire tree under this node producing a list of all descendents of this node.
      *
      * @returns a list of descendents in depth-first order. If there are no children, the list is empty. */
     public ArrayList<DataNode> getChildrenFlat() {
         ArrayList<DataNode> yield = new ArrayList<>();
-        for (DataNode child : children) {
-            yield.add(child);
-            yield.addAll(child.getChildrenFlat());
-        }
+        descendantIterator().forEachRemaining(yield::add);
         return yield;
     }
 
+    /** Iterates over all descendents of this node in depth-first order, the same order as
+     * getChildrenFlat(), without building a list. The tree must not be modified during iteration.
+     *
+     * @returns an iterator over the descendents, not including this node */
+    public Iterator<DataNode> descendantIterator() {
+        return new DescendantIterator(this);
+    }
+
+    /** Streams all descendents of this node in depth-first order. A parallel stream splits the
+     * tree into subtrees, so {@code node.descendants().parallel()} works on them concurrently.
+     * The tree must not be modified while the stream is in use.
+     *
+     * @returns a stream of the descendents, not including this node */
+    public Stream<DataNode> descendants() {
+        return StreamSupport.stream(new DescendantIterator(this), false);
+    }
+
+    /** Walks this node and all of its descendents in depth-first order. This node has depth 0.
+     * The walk does not recurse, so it is safe on trees of any depth.
+     *
+     * @param visitor is told when each node is entered and left, and decides which subtrees to visit
+     * @returns false if the visitor terminated the walk, or true if it ran to the end */
+    public boolean walk(DataVisitor visitor) {
+        return DataWalker.walk(Collections.singletonList(this), visitor);
+    }
+
     /** Creates a new ArrayList containing the children in reversed order
      * 
      * @returns a new ArrayList with the children, or an empty list if there are no children */
     public ArrayList<DataNode> getChildrenReversed() {
+        ensureLoaded();
         ArrayList<DataNode> reversed = new ArrayList<>(children);
         Collections.reverse(reversed);
         return reversed;
@@ -248,22 +518,27 @@ public class DataNode {
      *
      * @param node The DataNode to add */
     public void append(DataNode node) {
+        ensureLoaded();
         node.parent = this;
         children.add(node);
+        childIndex = null;
     }
 
     /** Removes a child node from this DataNode. Generally, this should only be called by DataFile
      *
      * @param node the DataNode to remove */
     public void remove(DataNode node) {
+        ensureLoaded();
         node.parent = null;
         children.remove(node);
+        childIndex = null;
     }
 
     /** Returns a deep copy of this DataNode. All chidren and tokens are duplicated, recursively. Other attributes are copied as references.
      *
      * @returns the deep copy */
     public DataNode copy() {
+        ensureLoaded();
         DataNode copy = new DataNode(null, null, new ArrayList<>(tokens), logger);
         if(hasChildren())
             for (DataNode child : children)
@@ -280,6 +555,7 @@ public class DataNode {
 
     /** Removes this node from its tree */
     public void delete() {
+        ensureLoaded();
         if (parent != null)
             parent.remove(this);
 
@@ -289,6 +565,7 @@ public class DataNode {
             child.delete();
 
         children = new ArrayList<DataNode>();
+        childIndex = null;
     }
 
     /** Prints a "stack trace" within the node tree of this node with an optional message. If there is a logger, it is logged there.
@@ -305,6 +582,7 @@ public class DataNode {
      * @param trace The container for the trace, one tree level per String.
      * @returns the number of spaces that was used by this makeTrace */
     private int makeTrace(ArrayList<String> trace) {
+        ensureLoaded();
         int indent = 0;
         if (parent != null)
             indent = parent.makeTrace(trace) + 2;
@@ -0,0 +1,230 @@
+/*
+DataPath.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/** A compiled path expression that selects nodes from a tree, such as
+ * {@code ship[Bactrian]/attributes/"cargo space"} or {@code system/*}{@code /fleet}.
+ *
+ * A path is a list of steps separated by '/'. Each step matches the children of the nodes
+ * selected by the step before it, and the first step matches the children of the node the
+ * path is applied to, or the top-level nodes of a DataFile. A step is either a key, which
+ * matches children whose first token is that key, or '*', which matches every child. A step
+ * may be followed by a name in brackets, which the second token must also match. Keys and
+ * names containing whitespace or any of {@code / [ ] *} must be quoted with '"' or '`'.
+ *
+ * Compile a path once and reuse it; a DataPath is immutable and may be shared between threads. */
+public class DataPath {
+    private final String expression;
+    private final Step[] steps;
+
+    private DataPath(String expression, Step[] steps) {
+        this.expression = expression;
+        this.steps = steps;
+    }
+
+    /** Compiles a path expression.
+     *
+     * @param expression the path, such as {@code outfit/*}{@code /"cost"}
+     * @returns the compiled path
+     * @throws IllegalArgumentException if the expression is not a valid path */
+    public static DataPath compile(String expression) {
+        ArrayList<Step> steps = new ArrayList<>();
+        Parser parser = new Parser(expression);
+        do {
+            String key = parser.atAny() ? null : parser.token();
+            String name = null;
+            if (parser.skip('[')) {
+                name = parser.atAny() ? null : parser.token();
+                parser.expect(']');
+            }
+            steps.add(new Step(key, name));
+        } while (parser.skip('/'));
+        if (!parser.atEnd())
+            throw parser.error("expected '/'");
+        return new DataPath(expression, steps.toArray(new Step[0]));
+    }
+
+    /** Selects the matching descendants of a node. The tree is only searched as the stream
+     * is consumed, and nodes with many children are searched by their child index.
+     *
+     * @param node the node whose children the first step matches
+     * @returns a stream of the matching nodes, in depth-first order */
+    public Stream<DataNode> select(DataNode node) {
+        return StreamSupport.stream(new Selection(steps, node), false);
+    }
+
+    /** Selects the matching nodes of a file.
+     *
+     * @param file the file whose top-level nodes the first step matches
+     * @returns a stream of the matching nodes, in depth-first order */
+    public Stream<DataNode> select(DataFile file) {
+        return file.select(this);
+    }
+
+    /** Finds the first matching descendant of a node.
+     *
+     * @param node the node whose children the first step matches
+     * @returns the first match, or an empty Optional if there is none */
+    public Optional<DataNode> first(DataNode node) {
+        return select(node).findFirst();
+    }
+
+    /** Finds the first matching node of a file.
+     *
+     * @param file the file whose top-level nodes the first step matches
+     * @returns the first match, or an empty Optional if there is none */
+    public Optional<DataNode> first(DataFile file) {
+        return select(file).findFirst();
+    }
+
+    /** @returns the expression this path was compiled from */
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    /** One step of a path. A null key or name matches anything. */
+    private static class Step {
+        final String key;
+        final String name;
+
+        Step(String key, String name) {
+            this.key = key;
+            this.name = name;
+        }
+
+        /** The children of a node that may match: all of them, or those found by the key. */
+        Iterator<DataNode> children(DataNode node) {
+            return (key == null ? node.getChildren() : node.getChildren(key)).iterator();
+        }
+
+        /** Checks the name of a node returned by children(), without loading it if it is lazy. */
+        boolean matches(DataNode child) {
+            if (name == null)
+                return true;
+            ArrayList<String> tokens = child.peekTokens();
+            return tokens.size() > 1 && tokens.get(1).equals(name);
+        }
+    }
+
+    /** Finds the matches one at a time, keeping an iterator over the children of each step
+     * on the path to the current node. Only the nodes needed for the next match are searched,
+     * so a short-circuiting operation such as findFirst stops the search early. */
+    private static class Selection extends Spliterators.AbstractSpliterator<DataNode> {
+        private final Step[] steps;
+        private final ArrayDeque<Iterator<DataNode>> stack = new ArrayDeque<>();
+
+        Selection(Step[] steps, DataNode node) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.steps = steps;
+            stack.push(steps[0].children(node));
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super DataNode> action) {
+            while (!stack.isEmpty()) {
+                Iterator<DataNode> children = stack.peek();
+                if (!children.hasNext()) {
+                    stack.pop();
+                    continue;
+                }
+                DataNode child = children.next();
+                Step step = steps[stack.size() - 1];
+                if (!step.matches(child))
+                    continue;
+                if (stack.size() == steps.length) {
+                    action.accept(child);
+                    return true;
+                }
+                stack.push(steps[stack.size()].children(child));
+            }
+            return false;
+        }
+    }
+
+    /** Reads the tokens of a path expression. */
+    private static class Parser {
+        private final String text;
+        private int pos = 0;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        boolean atEnd() {
+            return pos >= text.length();
+        }
+
+        /** Skips a '*' wildcard, if there is one. */
+        boolean atAny() {
+            return skip('*');
+        }
+
+        boolean skip(char c) {
+            if (pos < text.length() && text.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        void expect(char c) {
+            if (!skip(c))
+                throw error("expected '" + c + "'");
+        }
+
+        String token() {
+            if (atEnd())
+                throw error("expected a key");
+            char quote = text.charAt(pos);
+            if (quote == '"' || quote == '`') {
+                int end = text.indexOf(quote, pos + 1);
+                if (end < 0)
+                    throw error("missing closing " + quote);
+                String token = text.substring(pos + 1, end);
+                pos = end + 1;
+                return token;
+            }
+            int start = pos;
+            while (pos < text.length() && !isSpecial(text.charAt(pos)))
+                pos++;
+            if (pos == start)
+                throw error("expected a key");
+            return text.substring(start, pos);
+        }
+
+        private static boolean isSpecial(char c) {
+            return c == '/' || c == '[' || c == ']' || c == '*' || c == '"' || c == '`' || Character.isWhitespace(c);
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid path \"" + text + "\" at " + pos + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+DataReader.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/** Reads the data format one event at a time, without building a tree. Each node produces
+ * a BEGIN event, a TOKEN event per token, the events of its children, and then an END event.
+ * A line is only tokenized when its tokens are requested, and skipChildren() passes over a
+ * subtree by looking only at indentation. Line numbers are zero-based indices of the input
+ * lines, as in DataNode.getFirstLine().
+ *
+ * When reading from a file, I/O errors after the file is opened are thrown as an
+ * UncheckedIOException. */
+public class DataReader implements Closeable {
+    public enum Event {
+        /** The first line of a node was read */
+        BEGIN,
+        /** The next token of the current node is available from getToken() */
+        TOKEN,
+        /** A node and all its children have been read */
+        END
+    }
+
+    private final DataScanner scanner;
+    private final DataNodeLogger logger;
+    private final Closeable source;
+
+    private int[] whites = new int[16];
+    private int depth = 0;
+    private boolean pending = false;
+    private boolean done = false;
+
+    private Event event = null;
+    private int line = -1;
+    private int eventDepth = -1;
+    private boolean inTokens = false;
+    private boolean onNodeLine = false;
+    private ArrayList<String> tokens = null;
+    private int tokenIndex = 0;
+
+    public DataReader(String file) throws IOException {
+        this(file, new DataNodeLogger());
+    }
+
+    public DataReader(List<String> data) {
+        this(data, new DataNodeLogger());
+    }
+
+    public DataReader(Stream<String> data) {
+        this(data, new DataNodeLogger());
+    }
+
+    public DataReader(String file, DataNodeLogger logger) throws IOException {
+        this(Files.newBufferedReader(Paths.get(file)), logger);
+    }
+
+    public DataReader(List<String> data, DataNodeLogger logger) {
+        this.scanner = new LineDataScanner(data.iterator());
+        this.logger = logger;
+        this.source = null;
+    }
+
+    public DataReader(Stream<String> data, DataNodeLogger logger) {
+        this.scanner = new LineDataScanner(data.iterator());
+        this.logger = logger;
+        this.source = data::close;
+    }
+
+    private DataReader(BufferedReader reader, DataNodeLogger logger) {
+        this.scanner = new LineDataScanner(reader.lines().iterator());
+        this.logger = logger;
+        this.source = reader;
+    }
+
+    /** Are there more events?
+     *
+     * @returns true if next() will return an event */
+    public boolean hasNext() {
+        return depth > 0 || findNode();
+    }
+
+    /** Advances to the next event.
+     *
+     * @returns the event
+     * @throws NoSuchElementException if there are no more events */
+    public Event next() {
+        if (inTokens) {
+            if (tokens == null)
+                tokenize();
+            if (tokenIndex < tokens.size()) {
+                tokenIndex++;
+                return event = Event.TOKEN;
+            }
+            inTokens = false;
+        }
+
+        boolean found = findNode();
+        if (depth > 0 && (!found || whites[depth - 1] >= scanner.indent())) {
+            line = found ? scanner.line() - 1 : scanner.line();
+            eventDepth = --depth;
+            onNodeLine = false;
+            tokens = null;
+            return event = Event.END;
+        }
+        if (!found)
+            throw new NoSuchElementException();
+
+        if (depth == whites.length)
+            whites = Arrays.copyOf(whites, depth * 2);
+        whites[depth] = scanner.indent();
+        eventDepth = depth++;
+        line = scanner.line();
+        pending = false;
+        inTokens = true;
+        onNodeLine = true;
+        tokens = null;
+        tokenIndex = 0;
+        return event = Event.BEGIN;
+    }
+
+    /** The most recent event returned by next()
+     *
+     * @returns the event, or null if next() was never called */
+    public Event getEvent() {
+        return event;
+    }
+
+    /** The token of the most recent TOKEN event
+     *
+     * @returns the token, or null if the last event was not TOKEN */
+    public String getToken() {
+        return event == Event.TOKEN ? tokens.get(tokenIndex - 1) : null;
+    }
+
+    /** All tokens of the current node. This does not change which TOKEN events are still to come.
+     *
+     * @returns the tokens, or null if the last event was END, there was no event yet, or
+     * skipChildren() was called before the tokens were read */
+    public ArrayList<String> getTokens() {
+        if (event == null || event == Event.END)
+            return null;
+        if (tokens == null && onNodeLine)
+            tokenize();
+        return tokens;
+    }
+
+    /** For BEGIN and TOKEN, the index of the line that holds the current node. For END, the
+     * index of the last line of the node that ended, which may be a blank or comment line.
+     *
+     * @returns the line index, or -1 if there was no event yet */
+    public int getLine() {
+        return line;
+    }
+
+    /** The depth of the node that the most recent event belongs to: 0 for top-level nodes,
+     * 1 for their children, and so on.
+     *
+     * @returns the depth, or -1 if there was no event yet */
+    public int getDepth() {
+        return eventDepth;
+    }
+
+    /** Skips the remaining tokens and all children of the current node, so that the next
+     * event is the END of the current node. The skipped lines are not tokenized.
+     *
+     * @throws IllegalStateException if the last event was not BEGIN or TOKEN */
+    public void skipChildren() {
+        if (event != Event.BEGIN && event != Event.TOKEN)
+            throw new IllegalStateException("skipChildren() must follow a BEGIN or TOKEN event");
+        inTokens = false;
+        onNodeLine = false;
+        if (pending)
+            return;
+        int white = whites[depth - 1];
+        while (scanner.nextLine())
+            if (scanner.hasNode() && scanner.indent() <= white) {
+                pending = true;
+                return;
+            }
+        done = true;
+    }
+
+    /** Closes the file or Stream that this reader was created from. */
+    @Override
+    public void close() throws IOException {
+        if (source != null)
+            source.close();
+    }
+
+    /** Moves the scanner to the next line that holds a node, unless it is already there.
+     *
+     * @returns true if there is such a line */
+    private boolean findNode() {
+        if (pending)
+            return true;
+        if (done)
+            return false;
+        onNodeLine = false;
+        while (scanner.nextLine())
+            if (scanner.hasNode())
+                return pending = true;
+        done = true;
+        return false;
+    }
+
+    private void tokenize() {
+        tokens = new ArrayList<>();
+        if (!scanner.tokenize(tokens)) {
+            ArrayList<String> trace = new ArrayList<>();
+            trace.add("L" + line + ": " + scanner.text());
+            logger.log("Closing Quote is missing", trace);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+DataScanner.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import java.util.List;
+
+/** Splits a buffer into lines and tokens following the rules of the Endless Sky data format.
+ * Subclasses provide access to the underlying buffer. Tokens are located by their start and
+ * end offsets, and each token String is created exactly once, by token(). */
+abstract class DataScanner {
+    /** Index of the first element of the next unread line */
+    protected int pos;
+    /** Index after the last element in the buffer */
+    protected int limit;
+    /** If true, every fill() provides exactly one line, and no line-ending character splits it */
+    protected boolean linePerFill;
+
+    private TokenInterner interner = null;
+    private int line = -1;
+    private int start;
+    private int end;
+    private int first;
+    private int indent;
+    private int comment = -1;
+
+    /** Gets the element of the buffer at the given index, as an unsigned value.
+     *
+     * @param i the index in the buffer
+     * @returns the character or byte at that index */
+    protected abstract int at(int i);
+
+    /** Checks for whitespace (other than line endings) at the given index.
+     *
+     * @param i the index in the buffer
+     * @returns the number of buffer elements in the whitespace character, or 0 if it is not whitespace */
+    protected abstract int whitespace(int i);
+
+    /** Decodes a range of the buffer into a new String.
+     *
+     * @param from index of the first element
+     * @param to index after the last element
+     * @returns the text */
+    protected abstract String string(int from, int to);
+
+    /** Looks up a range of the buffer in a TokenInterner, creating a String only if needed.
+     *
+     * @param interner the interner to use
+     * @param from index of the first element of the token
+     * @param to index after the last element of the token
+     * @returns the token */
+    protected abstract String intern(TokenInterner interner, int from, int to);
+
+    /** Sets the interner for tokens. Comments and line text are never interned.
+     *
+     * @param interner the interner, or null to create a new String for every token */
+    void setInterner(TokenInterner interner) {
+        this.interner = interner;
+    }
+
+    /** Called when the buffer is exhausted, to load more input.
+     *
+     * @returns true if pos and limit now describe more input, or false at the end of input */
+    protected boolean fill() {
+        return false;
+    }
+
+    /** Advances to the next line of input, and finds its indentation. The line is not tokenized.
+     *
+     * @returns false if there are no more lines */
+    boolean nextLine() {
+        if (pos >= limit && !fill())
+            return false;
+        line++;
+        int limit = this.limit;
+        int i = pos;
+        int c = 0;
+        start = i;
+        if (linePerFill)
+            while (i < limit && (c = at(i)) != '\n')
+                i++;
+        else
+            while (i < limit && (c = at(i)) != '\n' && c != '\r')
+                i++;
+        end = i;
+        if (linePerFill)
+            i = limit;
+        else if (i < limit) {
+            i++;
+            if (c == '\r' && i < limit && at(i) == '\n')
+                i++;
+        }
+        pos = i;
+
+        int white = 0;
+        int width;
+        i = start;
+        while (i < end && (width = whitespace(i)) > 0) {
+            i += width;
+            white++;
+        }
+        first = i;
+        indent = white;
+        comment = i < end && at(i) == '#' ? i : -1;
+        return true;
+    }
+
+    /** The zero-based index of the current line. This counts all lines, including blank lines and comments.
+     *
+     * @returns the line index, or -1 before the first call to nextLine() */
+    int line() {
+        return line;
+    }
+
+    /** Sets the index that the next line read will have, for scanners that start in the middle of a text.
+     *
+     * @param line the index of the next line */
+    void setNextLine(int line) {
+        this.line = line - 1;
+    }
+
+    /** Index in the buffer of the first element of the current line */
+    int lineStart() {
+        return start;
+    }
+
+    /** Index in the buffer after the last element of the current line, excluding the line ending */
+    int lineEnd() {
+        return end;
+    }
+
+    /** The number of whitespace characters before the first token of the current line */
+    int indent() {
+        return indent;
+    }
+
+    /** Does the current line hold a node? Blank lines and comment lines do not.
+     *
+     * @returns true if the line has at least one token */
+    boolean hasNode() {
+        return first < end && at(first) != '#';
+    }
+
+    /** The full text of the current line, without the line ending */
+    String text() {
+        return string(start, end);
+    }
+
+    /** Does the current line have a comment? A comment after the tokens is only found
+     * once the line has been tokenized. */
+    boolean hasComment() {
+        return comment >= 0;
+    }
+
+    /** The text of the comment on the current line, after the '#'
+     *
+     * @returns the comment text, or null if there is no comment */
+    String comment() {
+        return comment >= 0 ? string(comment + 1, end) : null;
+    }
+
+    /** Tokenizes the current line, adding each token to the given list.
+     *
+     * @param tokens receives the tokens
+     * @returns false if the last token was quoted, and its closing quote is missing */
+    boolean tokenize(List<String> tokens) {
+        int end = this.end;
+        int i = first;
+        int width;
+        while (i < end) {
+            int quote = at(i);
+            if (quote == '"' || quote == '`') {
+                int from = ++i;
+                while (i < end && at(i) != quote)
+                    i++;
+                tokens.add(token(from, i));
+                if (i >= end)
+                    return false;
+                i++;
+            }
+            else {
+                int from = i;
+                while (i < end && whitespace(i) == 0)
+                    i++;
+                tokens.add(token(from, i));
+            }
+            while (i < end && (width = whitespace(i)) > 0)
+                i += width;
+            if (i < end && at(i) == '#') {
+                comment = i;
+                break;
+            }
+        }
+        return true;
+    }
+
+    private String token(int from, int to) {
+        TokenInterner interner = this.interner;
+        return interner == null ? string(from, to) : intern(interner, from, to);
+    }
+}
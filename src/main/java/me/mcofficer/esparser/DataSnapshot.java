@@ -0,0 +1,394 @@
+/*
+DataSnapshot.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import javax.annotation.Nullable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/** A read-only snapshot of many DataFiles in a single file, which is memory-mapped and
+ * navigated in place. Nothing is deserialized: nodes are rows of ints in the mapping, and
+ * a token is only decoded when getToken() is called. Several JVMs that open the same
+ * snapshot share one copy of it in the operating system's page cache, instead of each
+ * holding its own heap tree.
+ *
+ * A snapshot of the full game data is written with
+ * {@code DataSnapshot.write(new DataLoader().load(dataPath, pluginPath), path)}.
+ * Files keep the order they were written in, so plugin overrides are preserved.
+ *
+ * Nodes are identified by their index, numbered in order through all files. As in
+ * CompactDataTree, getNodes() and getNode() return DataNode views for existing code. */
+public class DataSnapshot implements NodeTable {
+    private static final int MAGIC = 0x45535053; // "ESPS"
+    private static final int VERSION = 1;
+    private static final int HEADER = 28;
+    private static final int FILE_INTS = 3;
+    private static final int NODE_INTS = 7;
+    private static final int PARENT = 0;
+    private static final int FIRST_CHILD = 1;
+    private static final int NEXT_SIBLING = 2;
+    private static final int FIRST_LINE = 3;
+    private static final int LAST_LINE = 4;
+    private static final int TOKEN_START = 5;
+    private static final int TOKEN_COUNT = 6;
+
+    private final ByteBuffer buffer;
+    private final DataNodeLogger logger;
+    private final int fileCount;
+    private final int nodeCount;
+    private final int poolCount;
+    private final int files;
+    private final int nodes;
+    private final int tokenRefs;
+    private final int poolOffsets;
+    private final int poolBytes;
+
+    public DataSnapshot(Path path) throws IOException {
+        this(path, new DataNodeLogger());
+    }
+
+    /** Maps a snapshot file.
+     *
+     * @param path the snapshot, as written by write()
+     * @param logger the logger for DataNode views */
+    public DataSnapshot(Path path, DataNodeLogger logger) throws IOException {
+        this.buffer = DataFile.map(path);
+        this.logger = logger;
+        if (buffer.limit() < HEADER || buffer.getInt(0) != MAGIC)
+            throw new IOException("Not a DataSnapshot: " + path);
+        if (buffer.getInt(4) != VERSION)
+            throw new IOException("Unsupported DataSnapshot version " + buffer.getInt(4) + ": " + path);
+        fileCount = buffer.getInt(8);
+        nodeCount = buffer.getInt(12);
+        int tokenRefCount = buffer.getInt(16);
+        poolCount = buffer.getInt(20);
+        int poolLength = buffer.getInt(24);
+        files = HEADER;
+        nodes = files + 4 * FILE_INTS * fileCount;
+        tokenRefs = nodes + 4 * NODE_INTS * nodeCount;
+        poolOffsets = tokenRefs + 4 * tokenRefCount;
+        poolBytes = poolOffsets + 4 * (poolCount + 1);
+        if (fileCount < 0 || nodeCount < 0 || tokenRefCount < 0 || poolCount < 0 || poolLength < 0
+                || (long)poolBytes + poolLength > buffer.limit())
+            throw new IOException("DataSnapshot is truncated: " + path);
+    }
+
+    /** Writes a snapshot of the given DataFiles. The snapshot is written to a temporary
+     * file and then moved into place, so JVMs that already mapped an older snapshot at the
+     * same path keep a consistent view of it.
+     *
+     * @param dataFiles the files to store, in load order
+     * @param path where to write the snapshot */
+    public static void write(List<DataFile> dataFiles, Path path) throws IOException {
+        Writer writer = new Writer();
+        for (DataFile file : dataFiles)
+            writer.add(file);
+        AtomicFile.write(path, false, out -> {
+            DataOutputStream data = new DataOutputStream(out);
+            writer.writeTo(data);
+            data.flush();
+        });
+    }
+
+    /** The number of DataFiles in the snapshot */
+    public int getFileCount() {
+        return fileCount;
+    }
+
+    /** @param file the file index
+     * @returns the origin of the file, or null if it was unknown */
+    @Nullable
+    public File getOrigin(int file) {
+        int origin = fileInt(file, 0);
+        return origin < 0 ? null : new File(pooled(origin));
+    }
+
+    /** @param file the file index
+     * @returns the index of the file's first top-level node, or -1 if the file has no nodes */
+    public int getFirstNode(int file) {
+        return fileInt(file, 1);
+    }
+
+    /** @param node a node index
+     * @returns the index of the file that holds the node */
+    public int getFileOf(int node) {
+        checkNode(node);
+        int low = 0;
+        int high = fileCount - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (fileInt(middle, 2) <= node)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    /** The number of nodes in the snapshot, at all depths and in all files */
+    public int size() {
+        return nodeCount;
+    }
+
+    /** @returns the index of the first child, or -1 if there are no children */
+    public int getFirstChild(int node) {
+        return nodeInt(node, FIRST_CHILD);
+    }
+
+    /** @returns the index of the next node with the same parent, or -1 if this is the last
+     * one. For top-level nodes, this stays within one file. */
+    public int getNextSibling(int node) {
+        return nodeInt(node, NEXT_SIBLING);
+    }
+
+    /** @returns the index of the parent, or -1 for a top-level node */
+    public int getParent(int node) {
+        return nodeInt(node, PARENT);
+    }
+
+    /** @returns the zero-based index of the node's first line, as in DataNode.getFirstLine() */
+    public int getFirstLine(int node) {
+        return nodeInt(node, FIRST_LINE);
+    }
+
+    /** @returns the zero-based index of the node's last line, as in DataNode.getLastLine() */
+    public int getLastLine(int node) {
+        return nodeInt(node, LAST_LINE);
+    }
+
+    /** @returns the number of tokens on the node's line */
+    public int getTokenCount(int node) {
+        return nodeInt(node, TOKEN_COUNT);
+    }
+
+    /** Decodes a token from the snapshot.
+     *
+     * @param node the node index
+     * @param index the index of the token on the node's line
+     * @returns the token */
+    public String getToken(int node, int index) {
+        return pooled(tokenRef(node, index));
+    }
+
+    /** Compares a token to a String without decoding the token.
+     *
+     * @param node the node index
+     * @param index the index of the token on the node's line
+     * @param value the String to compare to
+     * @returns true if the token equals value */
+    public boolean tokenEquals(int node, int index, String value) {
+        int pool = tokenRef(node, index);
+        int from = poolBytes + buffer.getInt(poolOffsets + 4 * pool);
+        int to = poolBytes + buffer.getInt(poolOffsets + 4 * pool + 4);
+        int length = value.length();
+        for (int i = 0; i < length; i++)
+            if (value.charAt(i) >= 0x80)
+                return pooled(pool).equals(value);
+        if (to - from != length)
+            return false;
+        for (int i = 0; i < length; i++)
+            if (buffer.get(from + i) != value.charAt(i))
+                return false;
+        return true;
+    }
+
+    /** Creates DataNode views of the top-level nodes of one file.
+     *
+     * @param file the file index
+     * @returns a new list of new views */
+    public ArrayList<DataNode> getNodes(int file) {
+        ArrayList<DataNode> views = new ArrayList<>();
+        for (int node = getFirstNode(file); node >= 0; node = getNextSibling(node))
+            views.add(getNode(node));
+        return views;
+    }
+
+    /** Creates a DataNode view of one node.
+     *
+     * @param node the node index
+     * @returns a new view */
+    public DataNode getNode(int node) {
+        DataNode view = new DataNode(null, null, null, logger);
+        view.setFirstLine(getFirstLine(node));
+        view.setLastLine(getLastLine(node));
+        view.setLoader(new CompactNodeLoader(this, node));
+        return view;
+    }
+
+    @Override
+    public ArrayList<String> getTokens(int node) {
+        int count = getTokenCount(node);
+        ArrayList<String> tokens = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            tokens.add(getToken(node, i));
+        return tokens;
+    }
+
+    @Override
+    public ArrayList<DataNode> getChildren(int node) {
+        ArrayList<DataNode> views = new ArrayList<>();
+        for (int child = getFirstChild(node); child >= 0; child = getNextSibling(child))
+            views.add(getNode(child));
+        return views;
+    }
+
+    @Override
+    public DataNodeLogger getLogger() {
+        return logger;
+    }
+
+    private int fileInt(int file, int field) {
+        if (file < 0 || file >= fileCount)
+            throw new IndexOutOfBoundsException("File " + file);
+        return buffer.getInt(files + 4 * (FILE_INTS * file + field));
+    }
+
+    private int nodeInt(int node, int field) {
+        checkNode(node);
+        return buffer.getInt(nodes + 4 * (NODE_INTS * node + field));
+    }
+
+    private void checkNode(int node) {
+        if (node < 0 || node >= nodeCount)
+            throw new IndexOutOfBoundsException("Node " + node);
+    }
+
+    private int tokenRef(int node, int index) {
+        if (index < 0 || index >= getTokenCount(node))
+            throw new IndexOutOfBoundsException("Token " + index + " of node " + node);
+        return buffer.getInt(tokenRefs + 4 * (nodeInt(node, TOKEN_START) + index));
+    }
+
+    /** Decodes an entry of the string pool. */
+    private String pooled(int pool) {
+        int from = poolBytes + buffer.getInt(poolOffsets + 4 * pool);
+        int to = poolBytes + buffer.getInt(poolOffsets + 4 * pool + 4);
+        byte[] bytes = new byte[to - from];
+        ByteBuffer reader = buffer.duplicate();
+        reader.position(from);
+        reader.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Lays out DataFiles in the snapshot format. */
+    private static class Writer {
+        private final HashMap<String, Integer> indices = new HashMap<>();
+        private final ArrayList<byte[]> pool = new ArrayList<>();
+        private int poolLength = 0;
+        private int[] fileTable = new int[FILE_INTS * 16];
+        private int fileCount = 0;
+        private int[] nodeTable = new int[NODE_INTS * 256];
+        private int nodeCount = 0;
+        private int[] tokenRefs = new int[1024];
+        private int tokenRefCount = 0;
+
+        void add(DataFile file) {
+            if (FILE_INTS * (fileCount + 1) > fileTable.length)
+                fileTable = Arrays.copyOf(fileTable, fileTable.length * 2);
+            File origin = file.getOrigin().orElse(null);
+            int row = FILE_INTS * fileCount++;
+            fileTable[row] = origin == null ? -1 : pool(origin.getPath());
+            int previous = -1;
+            int first = -1;
+            for (DataNode node : file.getNodes()) {
+                int index = add(node, -1);
+                if (previous >= 0)
+                    nodeTable[NODE_INTS * previous + NEXT_SIBLING] = index;
+                else
+                    first = index;
+                previous = index;
+            }
+            fileTable[row + 1] = first;
+            fileTable[row + 2] = nodeCount;
+        }
+
+        private int add(DataNode node, int parent) {
+            if (NODE_INTS * (nodeCount + 1) > nodeTable.length)
+                nodeTable = Arrays.copyOf(nodeTable, nodeTable.length * 2);
+            int index = nodeCount++;
+            int row = NODE_INTS * index;
+            ArrayList<String> tokens = node.getTokens();
+            if (tokenRefCount + tokens.size() > tokenRefs.length)
+                tokenRefs = Arrays.copyOf(tokenRefs, Math.max(tokenRefCount + tokens.size(), tokenRefs.length * 2));
+            nodeTable[row + PARENT] = parent;
+            nodeTable[row + FIRST_CHILD] = -1;
+            nodeTable[row + NEXT_SIBLING] = -1;
+            nodeTable[row + FIRST_LINE] = node.getFirstLine();
+            nodeTable[row + LAST_LINE] = node.getLastLine();
+            nodeTable[row + TOKEN_START] = tokenRefCount;
+            nodeTable[row + TOKEN_COUNT] = tokens.size();
+            for (String token : tokens)
+                tokenRefs[tokenRefCount++] = pool(token);
+
+            int previous = -1;
+            for (DataNode child : node.getChildren()) {
+                int childIndex = add(child, index);
+                if (previous >= 0)
+                    nodeTable[NODE_INTS * previous + NEXT_SIBLING] = childIndex;
+                else
+                    nodeTable[row + FIRST_CHILD] = childIndex;
+                previous = childIndex;
+            }
+            return index;
+        }
+
+        private int pool(String value) {
+            Integer index = indices.get(value);
+            if (index == null) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                index = pool.size();
+                indices.put(value, index);
+                pool.add(bytes);
+                poolLength += bytes.length;
+            }
+            return index;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(fileCount);
+            out.writeInt(nodeCount);
+            out.writeInt(tokenRefCount);
+            out.writeInt(pool.size());
+            out.writeInt(poolLength);
+            for (int i = 0; i < FILE_INTS * fileCount; i++)
+                out.writeInt(fileTable[i]);
+            for (int i = 0; i < NODE_INTS * nodeCount; i++)
+                out.writeInt(nodeTable[i]);
+            for (int i = 0; i < tokenRefCount; i++)
+                out.writeInt(tokenRefs[i]);
+            int offset = 0;
+            out.writeInt(offset);
+            for (byte[] bytes : pool)
+                out.writeInt(offset += bytes.length);
+            for (byte[] bytes : pool)
+                out.write(bytes);
+        }
+    }
+}
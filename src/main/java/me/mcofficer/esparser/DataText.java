@@ -0,0 +1,46 @@
+/*
+DataText.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import java.util.List;
+
+/** The text a DataFile was parsed from. Implementations decide how much of the input they
+ * keep in memory, and produce line Strings on request. */
+interface DataText {
+    /** The number of lines in the text, including blank lines and comments */
+    int lineCount();
+
+    /** Returns the lines of the text starting at first, up to but excluding end. The end
+     * is clamped to the number of lines. All lines will end with an end-of-line character.
+     *
+     * @param first the first line to return
+     * @param end the line after the last one to return
+     * @returns the lines in that range, or an empty list if the range is empty */
+    List<String> lines(int first, int end);
+
+    /** Creates a new DataScanner positioned before the first line of the text. */
+    DataScanner scanner();
+
+    /** Creates a new DataScanner that reads the lines from first, up to but excluding end.
+     * The scanner reports the same line indices as a scanner of the whole text.
+     *
+     * @param first the first line to read
+     * @param end the line after the last one to read */
+    DataScanner scanner(int first, int end);
+}
@@ -0,0 +1,164 @@
+/*
+DataTraversal.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/** Visits every node of many DataFiles concurrently on a ForkJoinPool. Work is split by file,
+ * then by ranges of sibling nodes, and then by the children of large nodes. The size of a
+ * range is estimated from the line numbers of its nodes, so splitting costs nothing extra.
+ *
+ * Each worker thread accumulates into its own container from the supplier, without locking.
+ * The containers are merged once all nodes have been visited. The order in which nodes are
+ * visited, and in which containers are merged, is not defined. */
+public class DataTraversal {
+    private ForkJoinPool pool = null;
+    private int minimumTaskLines = 1024;
+
+    public DataTraversal() {}
+
+    /** @param pool the pool that runs the traversal, or null to use the common ForkJoinPool
+     * @returns this object */
+    public DataTraversal setPool(@Nullable ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /** Sets the number of lines below which a range of nodes is visited by one task, instead
+     * of being split. Nodes without line numbers count as one line each.
+     *
+     * @param lines the smallest number of lines to split
+     * @returns this object */
+    public DataTraversal setMinimumTaskLines(int lines) {
+        this.minimumTaskLines = lines;
+        return this;
+    }
+
+    /** Visits every node of the files, at all depths, with a container for each thread.
+     *
+     * @param files the files to traverse
+     * @param supplier creates an empty container
+     * @param accumulator adds a node to a container
+     * @param combiner merges two containers, and may return either of them
+     * @returns the merged container, or a new empty one if there were no nodes */
+    public <A> A traverse(Collection<DataFile> files, Supplier<A> supplier, BiConsumer<A, DataNode> accumulator, BinaryOperator<A> combiner) {
+        ConcurrentHashMap<Thread, A> containers = new ConcurrentHashMap<>();
+        Visit<A> visit = new Visit<>(containers, supplier, accumulator);
+        ArrayList<RangeTask<A>> tasks = new ArrayList<>(files.size());
+        for (DataFile file : files) {
+            List<DataNode> nodes = file.getNodes();
+            tasks.add(new RangeTask<>(visit, nodes, 0, nodes.size()));
+        }
+        ForkJoinPool pool = this.pool == null ? ForkJoinPool.commonPool() : this.pool;
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+
+        A result = null;
+        for (A container : containers.values())
+            result = result == null ? container : combiner.apply(result, container);
+        return result == null ? supplier.get() : result;
+    }
+
+    /** Visits every node of the files, at all depths, and collects them.
+     *
+     * @param files the files to traverse
+     * @param collector the collector; it need not be CONCURRENT, as each thread has its own container
+     * @returns the result of the collector */
+    public <A, R> R traverse(Collection<DataFile> files, Collector<DataNode, A, R> collector) {
+        A container = traverse(files, collector.supplier(), collector.accumulator(), collector.combiner());
+        return collector.finisher().apply(container);
+    }
+
+    /** What a traversal does with each node, shared by all of its tasks */
+    private class Visit<A> {
+        final ConcurrentHashMap<Thread, A> containers;
+        final Supplier<A> supplier;
+        final BiConsumer<A, DataNode> accumulator;
+        final int minimumLines = minimumTaskLines;
+
+        Visit(ConcurrentHashMap<Thread, A> containers, Supplier<A> supplier, BiConsumer<A, DataNode> accumulator) {
+            this.containers = containers;
+            this.supplier = supplier;
+            this.accumulator = accumulator;
+        }
+
+        A container() {
+            return containers.computeIfAbsent(Thread.currentThread(), thread -> supplier.get());
+        }
+    }
+
+    /** Visits a range of sibling nodes and all of their descendants. */
+    private static class RangeTask<A> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Visit<A> visit;
+        private final List<DataNode> nodes;
+        private final int from;
+        private final int to;
+
+        RangeTask(Visit<A> visit, List<DataNode> nodes, int from, int to) {
+            this.visit = visit;
+            this.nodes = nodes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1 && lines() >= visit.minimumLines) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RangeTask<>(visit, nodes, from, mid), new RangeTask<>(visit, nodes, mid, to));
+                return;
+            }
+            A container = visit.container();
+            BiConsumer<A, DataNode> accumulator = visit.accumulator;
+            if (to - from == 1 && lines() >= visit.minimumLines) {
+                DataNode node = nodes.get(from);
+                accumulator.accept(container, node);
+                List<DataNode> children = node.getChildren();
+                new RangeTask<>(visit, children, 0, children.size()).compute();
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                DataNode node = nodes.get(i);
+                accumulator.accept(container, node);
+                DescendantIterator descendants = new DescendantIterator(node);
+                while (descendants.hasNext())
+                    accumulator.accept(container, descendants.next());
+            }
+        }
+
+        /** Estimates the size of the range from the line numbers of its first and last nodes. */
+        private int lines() {
+            int first = nodes.get(from).getFirstLine();
+            int last = nodes.get(to - 1).getLastLine();
+            return first >= 0 && last >= first ? last - first + 1 : to - from;
+        }
+    }
+}
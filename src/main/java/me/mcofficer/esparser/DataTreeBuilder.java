@@ -0,0 +1,63 @@
+/*
+DataTreeBuilder.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/** Builds a DataNode tree from parser events. This is how a DataFile creates its nodes. */
+class DataTreeBuilder implements DataEventHandler {
+    private final DataFile file;
+    private final DataNode root;
+    private final DataNodeLogger logger;
+    private DataNode[] stack = new DataNode[16];
+    private DataNode last;
+
+    /** @param file the DataFile to set as the file of each node, or null
+     * @param root the node to receive the top-level nodes
+     * @param logger the logger for new nodes and errors */
+    DataTreeBuilder(DataFile file, DataNode root, DataNodeLogger logger) {
+        this.file = file;
+        this.root = root;
+        this.logger = logger;
+    }
+
+    @Override
+    public void beginNode(ArrayList<String> tokens, int line, int depth) {
+        DataNode node = new DataNode(null, null, tokens, logger);
+        node.setFile(file);
+        node.setFirstLine(line);
+        (depth == 0 ? root : stack[depth - 1]).append(node);
+        if (depth == stack.length)
+            stack = Arrays.copyOf(stack, depth * 2);
+        stack[depth] = node;
+        last = node;
+    }
+
+    @Override
+    public void endNode(int line, int depth) {
+        stack[depth].setLastLine(line);
+        stack[depth] = null;
+    }
+
+    @Override
+    public void error(String message, int line) {
+        last.printTrace(message);
+    }
+}
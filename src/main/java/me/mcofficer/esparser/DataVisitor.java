@@ -0,0 +1,53 @@
+/*
+DataVisitor.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+/** Visits the nodes of a tree, as walked by DataNode.walk() or DataFile.walk(). Each node is
+ * entered before its children and left after them. Both methods continue the walk by
+ * default, so a visitor only needs to override the ones it cares about. Depth is 0 for the
+ * nodes the walk starts at, 1 for their children, and so on. */
+public interface DataVisitor {
+    enum Result {
+        /** Continue the walk, including the children of an entered node */
+        CONTINUE,
+        /** Do not visit the children of the node just entered. The node is still left. */
+        SKIP_SUBTREE,
+        /** Stop the walk at once. No more nodes are entered or left. */
+        TERMINATE
+    }
+
+    /** Called when a node is reached, before any of its children.
+     *
+     * @param node the node
+     * @param depth the depth of the node
+     * @returns whether to visit the node's children, or stop the walk */
+    default Result enter(DataNode node, int depth) {
+        return Result.CONTINUE;
+    }
+
+    /** Called after the children of a node were visited or skipped. This is called once for
+     * every entered node, unless the walk was terminated.
+     *
+     * @param node the node
+     * @param depth the depth of the node, the same as in enter
+     * @returns TERMINATE to stop the walk; any other result continues it */
+    default Result leave(DataNode node, int depth) {
+        return Result.CONTINUE;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+DataWalker.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import java.util.Arrays;
+import java.util.List;
+
+/** Walks trees for a DataVisitor, keeping its position in a stack of child lists and indexes
+ * instead of recursing, so deep trees cannot overflow the Java stack. */
+class DataWalker {
+    private DataWalker() {}
+
+    /** Walks each node of a list and its descendants, in order.
+     *
+     * @param nodes the nodes to start at, which have depth 0
+     * @param visitor the visitor
+     * @returns false if the visitor terminated the walk, or true if it ran to the end */
+    static boolean walk(List<DataNode> nodes, DataVisitor visitor) {
+        @SuppressWarnings("unchecked")
+        List<DataNode>[] lists = (List<DataNode>[]) new List<?>[16];
+        int[] next = new int[16];
+        int top = 0;
+        lists[0] = nodes;
+        while (top >= 0) {
+            List<DataNode> list = lists[top];
+            if (next[top] >= list.size()) {
+                lists[top--] = null;
+                if (top >= 0 && visitor.leave(lists[top].get(next[top] - 1), top) == DataVisitor.Result.TERMINATE)
+                    return false;
+                continue;
+            }
+            DataNode node = list.get(next[top]++);
+            DataVisitor.Result result = visitor.enter(node, top);
+            if (result == DataVisitor.Result.TERMINATE)
+                return false;
+            if (result == DataVisitor.Result.SKIP_SUBTREE || !node.hasChildren()) {
+                if (visitor.leave(node, top) == DataVisitor.Result.TERMINATE)
+                    return false;
+                continue;
+            }
+            if (++top == lists.length) {
+                lists = Arrays.copyOf(lists, top * 2);
+                next = Arrays.copyOf(next, top * 2);
+            }
+            lists[top] = node.getChildren();
+            next[top] = 0;
+        }
+        return true;
+    }
+}
@@ -28,96 +28,228 @@ along with this program.  If not, see <http://www.gnu.org/licenses/>.
 package me.mcofficer.esparser;
 
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
-import java.nio.charset.Charset;
-import java.nio.file.Files;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.Collections;
+
+/** Writes DataNodes as text in the data file format. Text is encoded straight into a
+ * fixed-size heap buffer, which is written to the output whenever it fills up, so a
+ * writer uses the same memory no matter how much it writes.
+ *
+ * A writer for a Path keeps everything in memory until save() or saveAtomically() is
+ * called. A writer for a channel or stream writes as it goes; call flush() or close() when
+ * done. Errors while writing nodes are thrown as an UncheckedIOException. */
+public class DataWriter implements Closeable {
+    /** The default size of the buffer, in bytes */
+    public static final int BUFFER_SIZE = 64 * 1024;
+    /** A writer for a Path collects its text in memory anyway, so it only needs a small buffer */
+    private static final int PATH_BUFFER_SIZE = 4096;
+
+    private final Path path;
+    private final ByteArrayOutputStream out;
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private int depth = 0;
+    private boolean lineStart = true;
+
+    /** Creates a writer that collects the text in memory, and writes it to a file on save().
+     *
+     * @param path the file to save to */
+    public DataWriter(Path path) {
+        this.path = path.normalize();
+        out = new ByteArrayOutputStream();
+        channel = Channels.newChannel(out);
+        buffer = ByteBuffer.allocate(PATH_BUFFER_SIZE);
+    }
 
-public class DataWriter {
+    /** @param channel receives the text as it is written. It is closed by close(). */
+    public DataWriter(WritableByteChannel channel) {
+        this(channel, BUFFER_SIZE);
+    }
 
-    private Path path;
-    private ByteArrayOutputStream out = new ByteArrayOutputStream();
-    private final Charset charset = Charset.forName("UTF-8");
-    private char space;
-    private String indent;
-    private String before;
+    /** @param channel receives the text as it is written. It is closed by close().
+     * @param bufferSize the size of the buffer, in bytes; at least 16 */
+    public DataWriter(WritableByteChannel channel, int bufferSize) {
+        path = null;
+        out = null;
+        this.channel = channel;
+        buffer = ByteBuffer.allocate(Math.max(bufferSize, 16));
+    }
 
-    public DataWriter(Path path) {
-        this.path = path.normalize();
-        space = ' ';
-        indent = "";
-        before = indent;
+    /** @param out receives the text as it is written. It is closed by close(). */
+    public DataWriter(OutputStream out) {
+        this(Channels.newChannel(out));
     }
 
+    /** Writes everything written so far to the file given to the constructor, replacing it
+     * in one step, as by saveAtomically(false). This method keeps its original signature, so
+     * an error is only printed; use saveAtomically to be told about it.
+     * This only works for a writer created with a Path. */
     public void save() {
         try {
-            Files.write(path, out.toByteArray());
+            saveAtomically(false);
         }
         catch (IOException e) {
             e.printStackTrace();
         }
     }
 
-    public void write(DataNode node) {
-        for (String token : node.getTokens())
-            writeToken(token);
-        writeNewLine();
-
-        if (node.hasChildren()) {
-            beginChild();
-            for (DataNode child : node.getChildren())
-                write(child);
-            endChild();
-        }
+    /** Writes everything written so far to the file given to the constructor, without ever
+     * leaving a partly written file in its place. The text is written to a temporary file
+     * next to it, which is then moved over the file in one step. If the move cannot be atomic
+     * on this file system, the file is replaced by an ordinary move. The new file keeps the
+     * permissions of the one it replaces. Different writers can save at the same time, even
+     * to the same file; the last one to finish wins.
+     *
+     * This only works for a writer created with a Path.
+     *
+     * @param force true to force the text to the storage device before it replaces the file,
+     * so the file holds either the old or the new text even after a crash or power loss
+     * @throws IOException if the file cannot be written, in which case it is left unchanged */
+    public void saveAtomically(boolean force) throws IOException {
+        if (path == null)
+            throw new IllegalStateException("This DataWriter writes to a channel, not a file");
+        flush();
+        AtomicFile.write(path, force, out::writeTo);
     }
 
-    private void writeNewLine() {
-        out.write('\n');
-        before = indent;
+    /** Writes a node and all of its children, indented to the current depth.
+     *
+     * @param node the node to write */
+    public void write(DataNode node) {
+        int base = depth;
+        DataWalker.walk(Collections.singletonList(node), new DataVisitor() {
+            @Override
+            public Result enter(DataNode node, int depth) {
+                DataWriter.this.depth = base + depth;
+                for (String token : node.getTokens())
+                    writeToken(token);
+                writeNewLine();
+                return Result.CONTINUE;
+            }
+        });
+        depth = base;
     }
 
-    private void beginChild() {
-        indent += '\t';
-        before = indent;
+    /** Writes any buffered text to the output. */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
     }
 
-    private void endChild() {
-        indent = indent.substring(1);
-        before = indent;
+    /** Flushes the buffer and closes the output. */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        }
+        finally {
+            channel.close();
+        }
     }
 
-    private void writeComment(String string) {
-        writeString(indent + "# " + charset.encode(string) + "\n");
+    private void writeNewLine() {
+        put('\n');
+        lineStart = true;
     }
 
     private void writeToken(String token) {
         boolean hasSpace = false;
         boolean hasQuote = false;
 
-        for (char c : token.toCharArray()) {
+        for (int i = 0, length = token.length(); i < length; i++) {
+            char c = token.charAt(i);
             if (Character.isWhitespace(c))
                 hasSpace = true;
             if (c == '"')
                 hasQuote = true;
         }
 
-        writeString(before);
-        if (token.equals(""))
-            writeString("\"\"");
-        else if (hasQuote)
-            writeString("`" + charset.encode(token) + "`");
-        else if (hasSpace)
-            writeString("\"" + charset.encode(token) + "\"");
+        if (lineStart)
+            indent();
+        else
+            put(' ');
+        lineStart = false;
+
+        if (token.isEmpty()) {
+            put('"');
+            put('"');
+        }
+        else if (hasQuote) {
+            put('`');
+            putString(token);
+            put('`');
+        }
+        else if (hasSpace) {
+            put('"');
+            putString(token);
+            put('"');
+        }
         else
-            writeString(charset.encode(token).toString());
+            putString(token);
     }
 
-    private void writeString(String string) {
-        try {
-            out.write("\"\"".getBytes(charset));
-        } catch (IOException e) {
-            e.printStackTrace();
+    private void indent() {
+        for (int i = 0; i < depth; i++)
+            put('\t');
+    }
+
+    /** Adds one ASCII character to the buffer. */
+    private void put(char c) {
+        if (!buffer.hasRemaining())
+            drain();
+        buffer.put((byte) c);
+    }
+
+    /** Encodes a String into the buffer. ASCII characters are copied directly, and the
+     * encoder is only used from the first character outside ASCII. */
+    private void putString(String string) {
+        int length = string.length();
+        for (int i = 0; i < length; i++) {
+            char c = string.charAt(i);
+            if (c >= 0x80) {
+                encode(CharBuffer.wrap(string, i, length));
+                return;
+            }
+            put(c);
         }
+    }
+
+    private void encode(CharBuffer chars) {
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (result.isUnderflow())
+                break;
+            drain();
+        }
+        while (encoder.flush(buffer).isOverflow())
+            drain();
+    }
 
+    /** Writes the full buffer to the output, to make room. */
+    private void drain() {
+        try {
+            flush();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
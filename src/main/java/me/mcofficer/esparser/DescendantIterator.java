@@ -0,0 +1,143 @@
+/*
+DescendantIterator.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/** Walks the descendants of a node in depth-first order, without building any lists. The
+ * position in the tree is kept as a stack of child lists and indexes, which only grows when
+ * the tree is deeper than any seen so far.
+ *
+ * As a Spliterator, it splits off the first half of the shallowest list that still has two or
+ * more unvisited nodes, so a parallel stream fans out across whole subtrees. The tree must
+ * not be modified while it is being walked. */
+class DescendantIterator implements Iterator<DataNode>, Spliterator<DataNode> {
+    private List<DataNode>[] lists;
+    private int[] next;
+    private int[] ends;
+    private int top = -1;
+    private long estimate = Long.MAX_VALUE;
+
+    /** @param node the node whose descendants to walk; the node itself is not included */
+    DescendantIterator(DataNode node) {
+        this(8);
+        List<DataNode> children = node.getChildren();
+        push(children, 0, children.size());
+    }
+
+    private DescendantIterator(int depth) {
+        lists = newLists(depth);
+        next = new int[depth];
+        ends = new int[depth];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<DataNode>[] newLists(int length) {
+        return (List<DataNode>[]) new List<?>[length];
+    }
+
+    private void push(List<DataNode> list, int from, int to) {
+        if (++top == lists.length) {
+            int length = lists.length * 2;
+            List<DataNode>[] lists = newLists(length);
+            System.arraycopy(this.lists, 0, lists, 0, top);
+            this.lists = lists;
+            next = Arrays.copyOf(next, length);
+            ends = Arrays.copyOf(ends, length);
+        }
+        lists[top] = list;
+        next[top] = from;
+        ends[top] = to;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (top >= 0 && next[top] >= ends[top])
+            lists[top--] = null;
+        return top >= 0;
+    }
+
+    @Override
+    public DataNode next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        DataNode node = lists[top].get(next[top]++);
+        List<DataNode> children = node.getChildren();
+        if (!children.isEmpty())
+            push(children, 0, children.size());
+        return node;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super DataNode> action) {
+        if (!hasNext())
+            return false;
+        action.accept(next());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super DataNode> action) {
+        while (hasNext())
+            action.accept(next());
+    }
+
+    /** Splits at the shallowest level with two or more unvisited nodes. The new iterator takes
+     * everything deeper than that level, which comes first in depth-first order, and the first
+     * half of the level. This iterator keeps the second half and everything shallower. */
+    @Override
+    public Spliterator<DataNode> trySplit() {
+        hasNext();
+        for (int level = 0; level <= top; level++) {
+            int from = next[level];
+            int to = ends[level];
+            if (to - from < 2)
+                continue;
+            int mid = (from + to) >>> 1;
+            DescendantIterator prefix = new DescendantIterator(Math.max(8, top - level + 1));
+            for (int i = level; i <= top; i++) {
+                prefix.push(lists[i], next[i], ends[i]);
+                if (i > level)
+                    lists[i] = null;
+            }
+            prefix.ends[0] = mid;
+            next[level] = mid;
+            top = level;
+            estimate >>>= 1;
+            prefix.estimate = estimate;
+            return prefix;
+        }
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return estimate;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+LazyNodeLoader.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import java.util.ArrayList;
+
+/** Loads a top-level node of a lazy DataFile by parsing the lines of its span. */
+class LazyNodeLoader implements NodeLoader {
+    private final DataText text;
+    private final DataEventParser parser;
+    private final DataNodeLogger logger;
+
+    /** @param text the text of the DataFile
+     * @param parser the parser to use
+     * @param logger the logger for new nodes */
+    LazyNodeLoader(DataText text, DataEventParser parser, DataNodeLogger logger) {
+        this.text = text;
+        this.parser = parser;
+        this.logger = logger;
+    }
+
+    @Override
+    public DataNode load(DataNode node) {
+        DataNode parsed = new DataNode(null, null, null, logger);
+        DataScanner scanner = text.scanner(node.getFirstLine(), node.getLastLine() + 1);
+        parser.parse(scanner, new DataTreeBuilder(node.getFile().orElse(null), parsed, logger));
+        return parsed.getChildren().get(0);
+    }
+
+    /** Parses only the first line of the node's span. Errors on that line are left to be
+     * reported when the node is loaded. */
+    @Override
+    public ArrayList<String> tokens(DataNode node) {
+        ArrayList<String> tokens = new ArrayList<>();
+        DataScanner scanner = text.scanner(node.getFirstLine(), node.getFirstLine() + 1);
+        parser.parse(scanner, new DataEventHandler() {
+            @Override
+            public void beginNode(ArrayList<String> line, int index, int depth) {
+                if (depth == 0 && tokens.isEmpty())
+                    tokens.addAll(line);
+            }
+        });
+        return tokens;
+    }
+}
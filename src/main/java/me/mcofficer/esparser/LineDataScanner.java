@@ -0,0 +1,48 @@
+/*
+LineDataScanner.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import java.util.Iterator;
+
+/** A DataScanner that reads one String per line. Each line is copied into a reusable
+ * char[] buffer, so the scanner allocates nothing but the tokens. Anything after the
+ * first end-of-line character in a String is ignored. */
+class LineDataScanner extends CharDataScanner {
+    private final Iterator<String> lines;
+
+    LineDataScanner(Iterator<String> lines) {
+        super(new char[128], 0, 0);
+        this.lines = lines;
+        this.linePerFill = true;
+    }
+
+    @Override
+    protected boolean fill() {
+        if (!lines.hasNext())
+            return false;
+        String line = lines.next();
+        int length = line.length();
+        if (length > buffer.length)
+            buffer = new char[Math.max(length, buffer.length * 2)];
+        line.getChars(0, length, buffer, 0);
+        pos = 0;
+        limit = length;
+        return true;
+    }
+}
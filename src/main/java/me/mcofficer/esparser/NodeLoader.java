@@ -0,0 +1,37 @@
+/*
+NodeLoader.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import java.util.ArrayList;
+
+/** Supplies the contents of a DataNode that was created without its tokens and children. */
+interface NodeLoader {
+    /** Creates the contents of a node. The tokens and children of the returned node are
+     * moved into the node being loaded.
+     *
+     * @param node the node being loaded; its own tokens and children must not be used
+     * @returns a node holding the tokens and children */
+    DataNode load(DataNode node);
+
+    /** Creates only the tokens of a node, without loading its children.
+     *
+     * @param node the node whose tokens are needed; its own tokens must not be used
+     * @returns a new list of the tokens */
+    ArrayList<String> tokens(DataNode node);
+}
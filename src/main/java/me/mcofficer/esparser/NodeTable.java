@@ -0,0 +1,33 @@
+/*
+NodeTable.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import java.util.ArrayList;
+
+/** Nodes stored by index, outside of DataNode objects, that can create DataNode views. */
+interface NodeTable {
+    /** Copies the tokens of a node into a new list. */
+    ArrayList<String> getTokens(int node);
+
+    /** Creates the DataNode views of the children of a node. */
+    ArrayList<DataNode> getChildren(int node);
+
+    /** The logger for views */
+    DataNodeLogger getLogger();
+}
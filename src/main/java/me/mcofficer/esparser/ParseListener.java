@@ -0,0 +1,28 @@
+/*
+ParseListener.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+/** Receives the metrics of each DataFile that is parsed with this listener in its
+ * DataFileOptions. A listener given to a DataLoader is called from several threads at once. */
+public interface ParseListener {
+    /** Called once a DataFile has been read and parsed, before its constructor returns.
+     *
+     * @param metrics the measurements of that file */
+    void parsed(ParseMetrics metrics);
+}
@@ -0,0 +1,146 @@
+/*
+ParseMetrics.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Optional;
+
+/** Measurements taken while loading one DataFile, as given to a ParseListener. Times are in
+ * nanoseconds. Counts that are not known are -1: a lazy file has only found its top-level
+ * nodes, so only getTopLevelNodes() is known for it, and its node count, token count and
+ * depth are -1.
+ *
+ * Tokenizing and building the tree happen together, one line at a time, so they are timed
+ * together as the parse time. */
+public class ParseMetrics {
+    private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private static final boolean allocationSupported = isAllocationSupported();
+
+    private final File file;
+    private final long readNanos;
+    private final long parseNanos;
+    private final int lines;
+    private final long nodes;
+    private final long topLevelNodes;
+    private final long tokens;
+    private final int maxDepth;
+    private final long bytes;
+    private final long allocatedBytes;
+
+    ParseMetrics(@Nullable File file, long readNanos, long parseNanos, int lines, long nodes, long topLevelNodes, long tokens, int maxDepth, long bytes, long allocatedBytes) {
+        this.file = file;
+        this.readNanos = readNanos;
+        this.parseNanos = parseNanos;
+        this.lines = lines;
+        this.nodes = nodes;
+        this.topLevelNodes = topLevelNodes;
+        this.tokens = tokens;
+        this.maxDepth = maxDepth;
+        this.bytes = bytes;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /** @returns the file that was parsed, or Optional.empty() if the input was not a file */
+    public Optional<File> getFile() {
+        return Optional.ofNullable(file);
+    }
+
+    /** @returns the time taken to read or map the file, or to copy the input lines */
+    public long getReadNanos() {
+        return readNanos;
+    }
+
+    /** The time taken to parse the input. The parser builds the tree as it tokenizes each line,
+     * so this covers both; they are not timed separately. For a lazy file, it is the time taken
+     * to find the top-level nodes.
+     *
+     * @returns the time taken to tokenize the input and build the tree */
+    public long getParseNanos() {
+        return parseNanos;
+    }
+
+    /** @returns the number of lines in the input, including blank lines and comments */
+    public int getLines() {
+        return lines;
+    }
+
+    /** @returns the number of nodes at all depths, or -1 for a lazy file */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /** @returns the number of top-level nodes, which is known for lazy files too */
+    public long getTopLevelNodes() {
+        return topLevelNodes;
+    }
+
+    /** @returns the number of tokens in all nodes, or -1 for a lazy file */
+    public long getTokens() {
+        return tokens;
+    }
+
+    /** @returns the depth of the deepest node, where top-level nodes are 0, or -1 for a lazy or empty file */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /** @returns the size of the file in bytes, or -1 if the input was not a file */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /** An estimate of the memory allocated while reading and parsing. Only the loading
+     * thread is measured, so allocations by the threads of a parallel parse are missed. The
+     * JVM does not measure virtual threads, so this is unknown for files loaded on one.
+     *
+     * @returns the number of bytes allocated, or -1 if the JVM cannot measure it */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return (file == null ? "<lines>" : file.getPath()) + ": read " + readNanos / 1000 + " us, parse "
+                + parseNanos / 1000 + " us, " + lines + " lines, " + nodes + " nodes, " + topLevelNodes + " top-level nodes, " + tokens + " tokens, depth "
+                + maxDepth + ", " + bytes + " bytes, " + allocatedBytes + " bytes allocated";
+    }
+
+    /** Gets the number of bytes the current thread has allocated so far, on JVMs that count it.
+     *
+     * @returns the number of bytes, or -1 if it is unknown */
+    static long allocatedBytes() {
+        if (!allocationSupported)
+            return -1;
+        return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static boolean isAllocationSupported() {
+        try {
+            return threads instanceof com.sun.management.ThreadMXBean
+                    && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()
+                    && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemoryEnabled();
+        }
+        catch (LinkageError e) {
+            return false;
+        }
+    }
+}
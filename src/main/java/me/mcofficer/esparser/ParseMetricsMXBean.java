@@ -0,0 +1,74 @@
+/*
+ParseMetricsMXBean.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import java.util.Map;
+
+/** The management interface of a ParseMetricsRegistry, for viewing load metrics over JMX.
+ * Times are in milliseconds. Values that a file could not measure are left out of the totals;
+ * getLazyFiles() and getFilesWithoutAllocation() tell how many files that applies to. */
+public interface ParseMetricsMXBean {
+    /** @returns the number of files parsed */
+    long getFiles();
+
+    /** @returns the total time taken to read or map the files */
+    long getReadMillis();
+
+    /** The total time taken to parse the files. Tokenizing and building the tree are done
+     * together, line by line, so this covers both.
+     *
+     * @returns the total parse time */
+    long getParseMillis();
+
+    /** @returns the total number of lines, including blank lines and comments */
+    long getLines();
+
+    /** @returns the total number of nodes at all depths, in files that were not parsed lazily */
+    long getNodes();
+
+    /** @returns the total number of top-level nodes, in all files */
+    long getTopLevelNodes();
+
+    /** @returns the total number of tokens, in files that were not parsed lazily */
+    long getTokens();
+
+    /** @returns the number of files parsed lazily, which are left out of getNodes() and getTokens() */
+    long getLazyFiles();
+
+    /** @returns the total size of the files in bytes */
+    long getBytes();
+
+    /** An estimate of the memory allocated by the loading threads, in bytes. Files whose
+     * allocation was unknown, such as those loaded on virtual threads, are left out.
+     *
+     * @returns the total bytes allocated */
+    long getAllocatedBytes();
+
+    /** @returns the number of files whose allocation was unknown, which are left out of getAllocatedBytes() */
+    long getFilesWithoutAllocation();
+
+    /** @returns the total read and parse time of the files in each source root */
+    Map<String, Long> getMillisByRoot();
+
+    /** @returns the number of files parsed in each source root */
+    Map<String, Long> getFilesByRoot();
+
+    /** Clears all totals. */
+    void reset();
+}
@@ -0,0 +1,285 @@
+/*
+ParseMetricsRegistry.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/** A ParseListener that adds up the metrics of many files, both in total and for each source
+ * root, such as the game's data directory or one plugin. A file belongs to the longest root
+ * that contains it; files outside every root are counted under their parent directory, and
+ * input that was not a file is counted under "". The registry is thread-safe, so one can be
+ * shared by all threads of a DataLoader.
+ *
+ * The totals can be read with getTotals(), or over JMX once register() is called. */
+public class ParseMetricsRegistry implements ParseListener, ParseMetricsMXBean {
+    /** The JMX name that register() uses */
+    public static final String OBJECT_NAME = "me.mcofficer.esparser:type=ParseMetrics";
+
+    private final CopyOnWriteArrayList<Path> roots = new CopyOnWriteArrayList<>();
+    private final Totals totals = new Totals();
+    private final ConcurrentHashMap<String, Totals> byRoot = new ConcurrentHashMap<>();
+
+    public ParseMetricsRegistry() {}
+
+    /** Adds a source root, so that the files below it are counted together.
+     *
+     * @param root the directory
+     * @returns this object */
+    public ParseMetricsRegistry addRoot(Path root) {
+        Path normalized = root.toAbsolutePath().normalize();
+        if (!roots.contains(normalized))
+            roots.add(normalized);
+        return this;
+    }
+
+    @Override
+    public void parsed(ParseMetrics metrics) {
+        totals.add(metrics);
+        byRoot.computeIfAbsent(rootOf(metrics), root -> new Totals()).add(metrics);
+    }
+
+    private String rootOf(ParseMetrics metrics) {
+        if (!metrics.getFile().isPresent())
+            return "";
+        Path file = metrics.getFile().get().toPath().toAbsolutePath().normalize();
+        Path best = null;
+        for (Path root : roots)
+            if (file.startsWith(root) && (best == null || root.getNameCount() > best.getNameCount()))
+                best = root;
+        if (best == null)
+            best = file.getParent();
+        return best == null ? "" : best.toString();
+    }
+
+    /** @returns the totals of all files */
+    public Totals getTotals() {
+        return totals;
+    }
+
+    /** @returns the totals of each source root, sorted by root */
+    public Map<String, Totals> getTotalsByRoot() {
+        return new TreeMap<>(byRoot);
+    }
+
+    /** Registers this registry with the platform MBeanServer, under OBJECT_NAME. Any registry
+     * already registered under that name is replaced.
+     *
+     * @returns this object
+     * @throws IllegalStateException if the registry cannot be registered */
+    public ParseMetricsRegistry register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name))
+                server.unregisterMBean(name);
+            server.registerMBean(this, name);
+            return this;
+        }
+        catch (JMException e) {
+            throw new IllegalStateException("Cannot register parse metrics", e);
+        }
+    }
+
+    @Override
+    public long getFiles() {
+        return totals.getFiles();
+    }
+
+    @Override
+    public long getReadMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totals.getReadNanos());
+    }
+
+    @Override
+    public long getParseMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totals.getParseNanos());
+    }
+
+    @Override
+    public long getLines() {
+        return totals.getLines();
+    }
+
+    @Override
+    public long getNodes() {
+        return totals.getNodes();
+    }
+
+    @Override
+    public long getTopLevelNodes() {
+        return totals.getTopLevelNodes();
+    }
+
+    @Override
+    public long getTokens() {
+        return totals.getTokens();
+    }
+
+    @Override
+    public long getLazyFiles() {
+        return totals.getLazyFiles();
+    }
+
+    @Override
+    public long getBytes() {
+        return totals.getBytes();
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        return totals.getAllocatedBytes();
+    }
+
+    @Override
+    public long getFilesWithoutAllocation() {
+        return totals.getFilesWithoutAllocation();
+    }
+
+    @Override
+    public Map<String, Long> getMillisByRoot() {
+        return mapRoots(root -> TimeUnit.NANOSECONDS.toMillis(root.getReadNanos() + root.getParseNanos()));
+    }
+
+    @Override
+    public Map<String, Long> getFilesByRoot() {
+        return mapRoots(Totals::getFiles);
+    }
+
+    private Map<String, Long> mapRoots(Function<Totals, Long> value) {
+        TreeMap<String, Long> map = new TreeMap<>();
+        for (Map.Entry<String, Totals> entry : byRoot.entrySet())
+            map.put(entry.getKey(), value.apply(entry.getValue()));
+        return map;
+    }
+
+    @Override
+    public void reset() {
+        totals.reset();
+        byRoot.clear();
+    }
+
+    /** The sums of the metrics of many files. Unknown values, which are -1 in ParseMetrics,
+     * are left out of the sums, and the files they were unknown for are counted instead. */
+    public static class Totals {
+        private final LongAdder files = new LongAdder();
+        private final LongAdder readNanos = new LongAdder();
+        private final LongAdder parseNanos = new LongAdder();
+        private final LongAdder lines = new LongAdder();
+        private final LongAdder nodes = new LongAdder();
+        private final LongAdder topLevelNodes = new LongAdder();
+        private final LongAdder tokens = new LongAdder();
+        private final LongAdder lazyFiles = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final LongAdder filesWithoutAllocation = new LongAdder();
+
+        Totals() {}
+
+        void add(ParseMetrics metrics) {
+            files.increment();
+            readNanos.add(metrics.getReadNanos());
+            parseNanos.add(metrics.getParseNanos());
+            lines.add(metrics.getLines());
+            topLevelNodes.add(metrics.getTopLevelNodes());
+            if (metrics.getNodes() < 0)
+                lazyFiles.increment();
+            else {
+                nodes.add(metrics.getNodes());
+                tokens.add(metrics.getTokens());
+            }
+            bytes.add(Math.max(metrics.getBytes(), 0));
+            if (metrics.getAllocatedBytes() < 0)
+                filesWithoutAllocation.increment();
+            else
+                allocatedBytes.add(metrics.getAllocatedBytes());
+        }
+
+        void reset() {
+            for (LongAdder adder : new LongAdder[] {files, readNanos, parseNanos, lines, nodes, topLevelNodes, tokens,
+                    lazyFiles, bytes, allocatedBytes, filesWithoutAllocation})
+                adder.reset();
+        }
+
+        /** @returns the number of files */
+        public long getFiles() {
+            return files.sum();
+        }
+
+        /** @returns the total time taken to read or map the files, in nanoseconds */
+        public long getReadNanos() {
+            return readNanos.sum();
+        }
+
+        /** @returns the total time taken to tokenize the files and build their trees, in nanoseconds */
+        public long getParseNanos() {
+            return parseNanos.sum();
+        }
+
+        /** @returns the total number of lines */
+        public long getLines() {
+            return lines.sum();
+        }
+
+        /** @returns the total number of nodes at all depths, in files that were not parsed lazily */
+        public long getNodes() {
+            return nodes.sum();
+        }
+
+        /** @returns the total number of top-level nodes, in all files */
+        public long getTopLevelNodes() {
+            return topLevelNodes.sum();
+        }
+
+        /** @returns the total number of tokens, in files that were not parsed lazily */
+        public long getTokens() {
+            return tokens.sum();
+        }
+
+        /** @returns the number of files parsed lazily, which are left out of getNodes() and getTokens() */
+        public long getLazyFiles() {
+            return lazyFiles.sum();
+        }
+
+        /** @returns the total size of the files that were read from disk, in bytes */
+        public long getBytes() {
+            return bytes.sum();
+        }
+
+        /** @returns the estimated bytes allocated, in files whose allocation was known */
+        public long getAllocatedBytes() {
+            return allocatedBytes.sum();
+        }
+
+        /** @returns the number of files whose allocation was unknown, which are left out of getAllocatedBytes() */
+        public long getFilesWithoutAllocation() {
+            return filesWithoutAllocation.sum();
+        }
+    }
+}
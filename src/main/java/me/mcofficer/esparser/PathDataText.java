@@ -0,0 +1,70 @@
+/*
+PathDataText.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/** DataText that keeps only the path of its file, and reads the file the first time the
+ * text is needed. This is for DataFiles that were not parsed from text, such as those
+ * loaded from a DataFileCache. If the file can't be read, the text is empty. */
+class PathDataText implements DataText {
+    private final Path path;
+    private volatile DataText text;
+
+    PathDataText(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public int lineCount() {
+        return text().lineCount();
+    }
+
+    @Override
+    public List<String> lines(int first, int end) {
+        return text().lines(first, end);
+    }
+
+    @Override
+    public DataScanner scanner() {
+        return text().scanner();
+    }
+
+    @Override
+    public DataScanner scanner(int first, int end) {
+        return text().scanner(first, end);
+    }
+
+    private DataText text() {
+        DataText text = this.text;
+        if (text == null) {
+            try {
+                text = new ByteDataText(DataFile.read(path));
+            }
+            catch (IOException e) {
+                text = new CharDataText(Collections.<String>emptyIterator());
+            }
+            this.text = text;
+        }
+        return text;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+TokenInterner.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Shares one String instance between equal tokens, so that keys like "attributes" or
+ * "mass" are stored once instead of once per line. The table has a fixed number of slots
+ * and is safe to use from many threads at once; when the slots near a token's hash are
+ * full, the token is simply not interned. Tokens longer than the maximum length, such as
+ * descriptions, are never interned.
+ *
+ * A TokenInterner can be given to one load through DataFileOptions.setInterner, or the
+ * global instance can be shared by all loads. Tokens are looked up directly from the
+ * parser's buffer, so a token that is found in the table is never allocated at all. */
+public class TokenInterner {
+    private static final int PROBES = 8;
+    private static final TokenInterner global = new TokenInterner(1 << 16);
+
+    private final AtomicReferenceArray<String> table;
+    private final int mask;
+    private final int maxLength;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    /** @param capacity the number of slots in the table, rounded up to a power of two */
+    public TokenInterner(int capacity) {
+        this(capacity, 64);
+    }
+
+    /** @param capacity the number of slots in the table, rounded up to a power of two
+     * @param maxLength the longest token to intern */
+    public TokenInterner(int capacity, int maxLength) {
+        int size = Integer.highestOneBit(Math.max(capacity, PROBES) - 1) << 1;
+        this.table = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.maxLength = maxLength;
+    }
+
+    /** A TokenInterner shared by the whole JVM, with 65536 slots */
+    public static TokenInterner getGlobal() {
+        return global;
+    }
+
+    /** Returns the shared instance of a token, adding it to the table if there is room.
+     *
+     * @param token the token
+     * @returns an equal String, which may be the token itself */
+    public String intern(String token) {
+        int length = token.length();
+        if (length > maxLength)
+            return token;
+        int hash = token.hashCode();
+        for (int probe = 0; probe < PROBES; probe++) {
+            int slot = (hash + probe) & mask;
+            String found = table.get(slot);
+            if (found == null) {
+                if (table.compareAndSet(slot, null, token)) {
+                    misses.increment();
+                    return token;
+                }
+                found = table.get(slot);
+            }
+            if (found.hashCode() == hash && found.equals(token)) {
+                hit(length);
+                return found;
+            }
+        }
+        misses.increment();
+        return token;
+    }
+
+    /** Interns the token stored in a range of a char[], creating a String only if it is not in the table.
+     *
+     * @param buffer holds the token
+     * @param offset index of the first character
+     * @param length number of characters */
+    String intern(char[] buffer, int offset, int length) {
+        if (length > maxLength)
+            return new String(buffer, offset, length);
+        int hash = 0;
+        for (int i = 0; i < length; i++)
+            hash = 31 * hash + buffer[offset + i];
+        for (int probe = 0; probe < PROBES; probe++) {
+            String found = table.get((hash + probe) & mask);
+            if (found == null)
+                break;
+            if (found.length() == length && found.hashCode() == hash && matches(found, buffer, offset)) {
+                hit(length);
+                return found;
+            }
+        }
+        return intern(new String(buffer, offset, length));
+    }
+
+    /** Interns the token stored as UTF-8 in a range of a byte[], creating a String only if it is not in the table.
+     *
+     * @param buffer holds the token
+     * @param offset index of the first byte
+     * @param length number of bytes */
+    String intern(byte[] buffer, int offset, int length) {
+        if (length > maxLength)
+            return new String(buffer, offset, length, StandardCharsets.UTF_8);
+        int hash = 0;
+        int bits = 0;
+        for (int i = 0; i < length; i++) {
+            int b = buffer[offset + i];
+            bits |= b;
+            hash = 31 * hash + (b & 0xFF);
+        }
+        // Outside of ASCII, the bytes don't match the characters, so decode first.
+        if (bits < 0)
+            return intern(new String(buffer, offset, length, StandardCharsets.UTF_8));
+        for (int probe = 0; probe < PROBES; probe++) {
+            String found = table.get((hash + probe) & mask);
+            if (found == null)
+                break;
+            if (found.length() == length && found.hashCode() == hash && matches(found, buffer, offset)) {
+                hit(length);
+                return found;
+            }
+        }
+        return intern(ByteDataScanner.ascii(buffer, offset, length));
+    }
+
+    /** The number of tokens that were replaced by a String already in the table */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /** The number of tokens that were not found in the table, whether or not they were added */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** The fraction of tokens that were found in the table
+     *
+     * @returns a number from 0 to 1, or 0 if nothing was interned yet */
+    public double getHitRate() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        return total == 0 ? 0 : (double)hits / total;
+    }
+
+    /** An estimate of the heap memory saved by sharing Strings, assuming compact strings
+     * (one byte per character) and a 64-bit JVM with compressed pointers. */
+    public long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    /** Sets the hit, miss and byte counts to zero. The table is unchanged. */
+    public void resetStats() {
+        hits.reset();
+        misses.reset();
+        bytesSaved.reset();
+    }
+
+    private void hit(int length) {
+        hits.increment();
+        // A String object, plus its byte[] with a 16-byte header, rounded up to 8 bytes.
+        bytesSaved.add(24 + ((16 + length + 7) & ~7));
+    }
+
+    private static boolean matches(String found, char[] buffer, int offset) {
+        for (int i = found.length() - 1; i >= 0; i--)
+            if (found.charAt(i) != buffer[offset + i])
+                return false;
+        return true;
+    }
+
+    private static boolean matches(String found, byte[] buffer, int offset) {
+        for (int i = found.length() - 1; i >= 0; i--)
+            if (found.charAt(i) != buffer[offset + i])
+                return false;
+        return true;
+    }
+}
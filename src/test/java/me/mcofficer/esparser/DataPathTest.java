@@ -0,0 +1,75 @@
+/*
+DataPathTest.java
+Copyright (c) 2026 by an anonymous author
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package me.mcofficer.esparser;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DataPathTest {
+    /** Builds a file of outfits named "0", "1", and so on, each with a few attributes. */
+    private static List<String> outfits(int count) {
+        ArrayList<String> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            lines.add("outfit \"" + i + "\"");
+            lines.add("\tcost " + i * 100);
+            lines.add("\tattributes");
+            lines.add("\t\t\"mass\" " + i);
+        }
+        return lines;
+    }
+
+    @Test
+    public void selectFindsTheSameNodesInLazyFiles() throws IOException {
+        DataFile eager = new DataFile(outfits(20));
+        DataFile lazy = new DataFile(outfits(20), new DataNodeLogger(), new DataFileOptions().setLazy(true));
+        DataPath path = DataPath.compile("outfit/attributes/mass");
+        assertEquals(eager.select(path).count(), lazy.select(path).count());
+        assertEquals("1300", lazy.select("outfit[13]/cost").findFirst().get().token(1));
+    }
+
+    @Test
+    public void selectDoesNotLoadNonMatchingNodes() throws IOException {
+        DataFile lazy = new DataFile(outfits(500), new DataNodeLogger(), new DataFileOptions().setLazy(true));
+        Optional<DataNode> found = lazy.select(DataPath.compile("outfit[\"250\"]")).findFirst();
+        assertTrue(found.isPresent());
+        assertEquals("250", found.get().token(1));
+        for (DataNode node : lazy.getNodes())
+            if (node != found.get())
+                assertFalse("outfit " + node.getFirstLine() + " was loaded", node.isLoaded());
+    }
+
+    @Test
+    public void selectByKeyDoesNotLoadOtherKeys() throws IOException {
+        List<String> lines = outfits(100);
+        lines.add("ship \"Bactrian\"");
+        lines.add("\tattributes");
+        DataFile lazy = new DataFile(lines, new DataNodeLogger(), new DataFileOptions().setLazy(true));
+        assertEquals(1, lazy.select("ship/attributes").count());
+        for (DataNode node : lazy.getNodes())
+            assertEquals(node.peekTokens().get(0).equals("ship"), node.isLoaded());
+    }
+}